@@ -7,7 +7,6 @@ import java.util.List;
 import java.util.UUID;
 
 public interface ProjectRepository extends JpaRepository<Project, UUID> {
-    List<Project> findByOrganizationId(UUID organizationId);
     List<Project> findByOrganizationIdAndStatus(UUID organizationId, String status);
 }
 
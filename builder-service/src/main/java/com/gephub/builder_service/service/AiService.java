@@ -1,14 +1,16 @@
 package com.gephub.builder_service.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gephub.common.http.OutboundHttpClient;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,15 +20,18 @@ public class AiService {
     private final String apiKey;
     private final String model;
     private final String provider;
-    private final RestTemplate http = new RestTemplate();
+    private final OutboundHttpClient.Destination http;
     private final ObjectMapper json = new ObjectMapper();
 
     public AiService(@Value("${gephub.builder.ai.apiKey:}") String apiKey,
                      @Value("${gephub.builder.ai.model:gpt-4-turbo-preview}") String model,
-                     @Value("${gephub.builder.ai.provider:openai}") String provider) {
+                     @Value("${gephub.builder.ai.provider:openai}") String provider,
+                     @Value("${gephub.builder.ai.timeoutMs:60000}") long timeoutMs,
+                     OutboundHttpClient outbound) {
         this.apiKey = apiKey;
         this.model = model;
         this.provider = provider;
+        this.http = outbound.destination("ai", Duration.ofMillis(timeoutMs));
     }
 
     public Map<String, Object> generateComponentTree(String prompt, String context) {
@@ -46,14 +51,18 @@ public class AiService {
             ));
             request.put("response_format", Map.of("type", "json_object"));
             request.put("temperature", 0.7);
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(apiKey);
             String url = "openai".equals(provider) ?
                     "https://api.openai.com/v1/chat/completions" :
                     "https://api.anthropic.com/v1/messages";
-            ResponseEntity<Map> resp = http.postForEntity(url, new HttpEntity<>(request, headers), Map.class);
-            Map<String, Object> body = resp.getBody();
+            HttpResponse<String> resp = http.send(HttpRequest.newBuilder(URI.create(url))
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                    .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(request)))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (resp.statusCode() / 100 != 2) {
+                throw new IllegalStateException("AI provider returned HTTP " + resp.statusCode());
+            }
+            Map<String, Object> body = json.readValue(resp.body(), Map.class);
             if (body != null && body.containsKey("choices")) {
                 List<Map> choices = (List<Map>) body.get("choices");
                 if (!choices.isEmpty()) {
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gephub.builder_service.domain.Page;
 import com.gephub.builder_service.domain.Project;
 import com.gephub.builder_service.repository.PageRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.velocity.Template;
@@ -31,10 +34,12 @@ public class CodeGeneratorService {
     private final VelocityEngine velocity;
     private final ObjectMapper json = new ObjectMapper();
     private final String storageRoot;
+    private final MeterRegistry meterRegistry;
 
-    public CodeGeneratorService(PageRepository pages, @Value("${gephub.builder.storage.root}") String storageRoot) {
+    public CodeGeneratorService(PageRepository pages, @Value("${gephub.builder.storage.root}") String storageRoot, MeterRegistry meterRegistry) {
         this.pages = pages;
         this.storageRoot = storageRoot;
+        this.meterRegistry = meterRegistry;
         this.velocity = new VelocityEngine();
         velocity.setProperty(RuntimeConstants.RESOURCE_LOADERS, "classpath");
         velocity.setProperty("resource.loader.classpath.class", ClasspathResourceLoader.class.getName());
@@ -42,18 +47,28 @@ public class CodeGeneratorService {
     }
 
     public Resource generateFrontendCode(Project project, String format) throws Exception {
-        List<Page> projectPages = pages.findByProjectId(project.getId());
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(baos)) {
-            if ("nextjs".equals(format)) {
-                generateNextJSProject(zos, project, projectPages);
-            } else if ("react".equals(format)) {
-                generateReactProject(zos, project, projectPages);
-            } else {
-                generateHTMLProject(zos, project, projectPages);
+        String formatTag = "nextjs".equals(format) || "react".equals(format) ? format : "html";
+        Timer.Sample started = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            List<Page> projectPages = pages.findByProjectId(project.getId());
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (ZipArchiveOutputStream zos = new ZipArchiveOutputStream(baos)) {
+                if ("nextjs".equals(format)) {
+                    generateNextJSProject(zos, project, projectPages);
+                } else if ("react".equals(format)) {
+                    generateReactProject(zos, project, projectPages);
+                } else {
+                    generateHTMLProject(zos, project, projectPages);
+                }
             }
+            meterRegistry.summary("gephub.builder.codegen.pages", "format", formatTag).record(projectPages.size());
+            DistributionSummary.builder("gephub.builder.codegen.size").baseUnit("bytes").tag("format", formatTag).register(meterRegistry).record(baos.size());
+            outcome = "success";
+            return new ByteArrayResource(baos.toByteArray());
+        } finally {
+            started.stop(meterRegistry.timer("gephub.builder.codegen", "format", formatTag, "outcome", outcome));
         }
-        return new ByteArrayResource(baos.toByteArray());
     }
 
     private void generateNextJSProject(ZipArchiveOutputStream zos, Project project, List<Page> pages) throws Exception {
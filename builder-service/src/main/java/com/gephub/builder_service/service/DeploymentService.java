@@ -3,18 +3,27 @@ package com.gephub.builder_service.service;
 import com.gephub.builder_service.domain.Deployment;
 import com.gephub.builder_service.domain.Project;
 import com.gephub.builder_service.repository.DeploymentRepository;
+import com.gephub.common.id.UuidV7;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.OffsetDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 
 @Service
 public class DeploymentService {
+    private static final Logger log = LoggerFactory.getLogger(DeploymentService.class);
+
     private final DeploymentRepository deployments;
     private final String baseUrl;
     private final String subdomainPattern;
@@ -22,6 +31,8 @@ public class DeploymentService {
     private final CodeGeneratorService codeGenerator;
     private final DockerDeploymentService dockerService;
     private final WebhookService webhookService;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate tx;
 
     public DeploymentService(DeploymentRepository deployments,
                              @Value("${gephub.builder.deployment.baseUrl}") String baseUrl,
@@ -29,7 +40,9 @@ public class DeploymentService {
                              GitHubService githubService,
                              CodeGeneratorService codeGenerator,
                              DockerDeploymentService dockerService,
-                             WebhookService webhookService) {
+                             WebhookService webhookService,
+                             MeterRegistry meterRegistry,
+                             PlatformTransactionManager transactionManager) {
         this.deployments = deployments;
         this.baseUrl = baseUrl;
         this.subdomainPattern = subdomainPattern;
@@ -37,11 +50,13 @@ public class DeploymentService {
         this.codeGenerator = codeGenerator;
         this.dockerService = dockerService;
         this.webhookService = webhookService;
+        this.meterRegistry = meterRegistry;
+        this.tx = new TransactionTemplate(transactionManager);
     }
 
     public Deployment createDeployment(Project project, String githubRepo, String githubRepoUrl, String customDomain) {
         Deployment d = new Deployment();
-        d.setId(UUID.randomUUID());
+        d.setId(UuidV7.next());
         d.setProjectId(project.getId());
         d.setGithubRepo(githubRepo);
         d.setGithubRepoUrl(githubRepoUrl);
@@ -59,18 +74,21 @@ public class DeploymentService {
 
     @Async
     public CompletableFuture<Void> deployAsync(Deployment deployment, Project project) {
+        Timer.Sample started = Timer.start(meterRegistry);
         try {
             deployment.setStatus("deploying");
             deployments.save(deployment);
             
             // Step 1: Generate code
-            var codeResource = codeGenerator.generateFrontendCode(project, "nextjs");
-            byte[] codeBytes = codeResource.getInputStream().readAllBytes();
+            byte[] codeBytes = step("generate", () -> codeGenerator.generateFrontendCode(project, "nextjs").getInputStream().readAllBytes());
             
             // Step 2: Push to GitHub if repo exists
             if (deployment.getGithubRepo() != null && deployment.getGithubRepoUrl() != null) {
                 try {
-                    githubService.pushCode(deployment.getGithubRepo(), codeBytes, deployment.getGithubRepoUrl());
+                    step("github_push", () -> {
+                        githubService.pushCode(deployment.getGithubRepo(), codeBytes, deployment.getGithubRepoUrl());
+                        return null;
+                    });
                 } catch (Exception e) {
                     deployment.setStatus("failed");
                     deployments.save(deployment);
@@ -81,10 +99,13 @@ public class DeploymentService {
             // Step 3: Trigger deployment (Docker build, deploy to infrastructure)
             if (deployment.getGithubRepoUrl() != null && !deployment.getGithubRepoUrl().isBlank()) {
                 try {
-                    dockerService.buildAndDeploy(deployment.getId(), deployment.getGithubRepoUrl(), deployment.getSubdomain());
+                    step("docker", () -> {
+                        dockerService.buildAndDeploy(deployment.getId(), deployment.getGithubRepoUrl(), deployment.getSubdomain());
+                        return null;
+                    });
                 } catch (Exception e) {
                     // If Docker deployment fails, log but continue (might be disabled)
-                    System.err.println("Docker deployment failed: " + e.getMessage());
+                    log.warn("Docker deployment of {} failed: {}", deployment.getId(), e.getMessage());
                 }
             }
             
@@ -96,37 +117,65 @@ public class DeploymentService {
             // - Starting/updating container
             
             // For now, simulate final deployment steps
-            simulateDeployment(deployment);
+            step("infrastructure", () -> {
+                simulateDeployment(deployment);
+                return null;
+            });
             
             deployment.setStatus("live");
             deployment.setDeployedAt(OffsetDateTime.now());
-            deployments.save(deployment);
             
-            // Send webhook notification
+            // Save the status and queue the webhook notification together
             Map<String, Object> webhookData = new HashMap<>();
             webhookData.put("deploymentId", deployment.getId().toString());
             webhookData.put("projectId", project.getId().toString());
             webhookData.put("status", "live");
             webhookData.put("url", getDeploymentUrl(deployment));
-            webhookService.sendWebhook(project.getOrganizationId(), "deployment.completed", webhookData);
+            tx.executeWithoutResult(status -> {
+                deployments.save(deployment);
+                webhookService.sendWebhook(project.getOrganizationId(), "deployment.completed", webhookData);
+            });
+            recordDeployment("success", started);
             
         } catch (Exception e) {
             deployment.setStatus("failed");
-            deployments.save(deployment);
+            recordDeployment("failure", started);
             
-            // Send failure webhook
+            // Save the status and queue the failure webhook together
             Map<String, Object> webhookData = new HashMap<>();
             webhookData.put("deploymentId", deployment.getId().toString());
             webhookData.put("projectId", project.getId().toString());
             webhookData.put("status", "failed");
             webhookData.put("error", e.getMessage());
-            webhookService.sendWebhook(project.getOrganizationId(), "deployment.failed", webhookData);
+            tx.executeWithoutResult(status -> {
+                deployments.save(deployment);
+                webhookService.sendWebhook(project.getOrganizationId(), "deployment.failed", webhookData);
+            });
             
             throw new RuntimeException("Deployment failed: " + e.getMessage(), e);
         }
         return CompletableFuture.completedFuture(null);
     }
 
+    /**
+     * Runs one deployment step, timed as {@code gephub.builder.deploy.step}.
+     */
+    private <T> T step(String name, Callable<T> work) throws Exception {
+        Timer.Sample started = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            T result = work.call();
+            outcome = "success";
+            return result;
+        } finally {
+            started.stop(meterRegistry.timer("gephub.builder.deploy.step", "step", name, "outcome", outcome));
+        }
+    }
+
+    private void recordDeployment(String outcome, Timer.Sample started) {
+        started.stop(meterRegistry.timer("gephub.builder.deploy", "outcome", outcome));
+    }
+
     private void simulateDeployment(Deployment deployment) {
         // Simulate deployment delay
         try {
@@ -143,11 +192,15 @@ public class DeploymentService {
     }
 
     public String getDeploymentUrl(Deployment deployment) {
-        if (deployment.getDomain() != null) {
-            return "https://" + deployment.getDomain();
+        return getDeploymentUrl(deployment.getDomain(), deployment.getSubdomain());
+    }
+
+    public String getDeploymentUrl(String domain, String subdomain) {
+        if (domain != null) {
+            return "https://" + domain;
         }
-        if (deployment.getSubdomain() != null) {
-            return "https://" + deployment.getSubdomain() + ".gephub.io";
+        if (subdomain != null) {
+            return "https://" + subdomain + ".gephub.io";
         }
         return null;
     }
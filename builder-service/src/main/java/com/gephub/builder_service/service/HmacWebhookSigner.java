@@ -0,0 +1,27 @@
+package com.gephub.builder_service.service;
+
+import com.gephub.common.webhook.WebhookSigner;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Base64 HMAC-SHA256 of the body, sent only when the endpoint has a secret configured.
+ */
+@Component
+public class HmacWebhookSigner implements WebhookSigner {
+    @Override
+    public String sign(String secret, String body) {
+        if (secret.isBlank()) return null;
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return Base64.getEncoder().encodeToString(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
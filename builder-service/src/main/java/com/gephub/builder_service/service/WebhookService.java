@@ -1,21 +1,14 @@
 package com.gephub.builder_service.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gephub.builder_service.domain.WebhookEndpoint;
 import com.gephub.builder_service.repository.WebhookEndpointRepository;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.scheduling.annotation.Async;
+import com.gephub.common.webhook.WebhookOutbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,57 +16,50 @@ import java.util.UUID;
 
 @Service
 public class WebhookService {
+    private static final Logger log = LoggerFactory.getLogger(WebhookService.class);
+
     private final WebhookEndpointRepository webhooks;
-    private final RestTemplate http = new RestTemplate();
+    private final WebhookOutbox outbox;
     private final ObjectMapper json = new ObjectMapper();
 
-    public WebhookService(WebhookEndpointRepository webhooks) {
+    public WebhookService(WebhookEndpointRepository webhooks, WebhookOutbox outbox) {
         this.webhooks = webhooks;
+        this.outbox = outbox;
     }
 
-    @Async
+    /**
+     * Queues the event for every subscribed endpoint in the caller's transaction.
+     */
     public void sendWebhook(UUID organizationId, String eventType, Map<String, Object> payload) {
         List<WebhookEndpoint> endpoints = webhooks.findByOrganizationIdAndIsActive(organizationId, true);
+        if (endpoints.isEmpty()) return;
+        
+        Map<String, Object> webhookPayload = new HashMap<>();
+        webhookPayload.put("event", eventType);
+        webhookPayload.put("timestamp", System.currentTimeMillis() / 1000);
+        webhookPayload.put("data", payload);
+        String body;
+        try {
+            body = json.writeValueAsString(webhookPayload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
         
         for (WebhookEndpoint endpoint : endpoints) {
-            try {
-                // Check if endpoint subscribes to this event type
-                if (endpoint.getEventTypes() != null) {
-                    List<String> eventTypes = json.readValue(endpoint.getEventTypes(), List.class);
-                    if (!eventTypes.contains(eventType) && !eventTypes.contains("*")) {
-                        continue;
-                    }
-                }
-                
-                Map<String, Object> webhookPayload = new HashMap<>();
-                webhookPayload.put("event", eventType);
-                webhookPayload.put("timestamp", System.currentTimeMillis() / 1000);
-                webhookPayload.put("data", payload);
-                
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                
-                // Add HMAC signature if secret is configured
-                if (endpoint.getSecret() != null && !endpoint.getSecret().isBlank()) {
-                    String signature = calculateSignature(endpoint.getSecret(), json.writeValueAsString(webhookPayload));
-                    headers.set("X-Gephub-Signature", signature);
-                }
-                
-                HttpEntity<Map<String, Object>> entity = new HttpEntity<>(webhookPayload, headers);
-                http.postForEntity(endpoint.getUrl(), entity, String.class);
-                
-            } catch (Exception e) {
-                System.err.println("Failed to send webhook to " + endpoint.getUrl() + ": " + e.getMessage());
+            if (subscribes(endpoint, eventType)) {
+                outbox.enqueue(endpoint.getId(), eventType, body);
             }
         }
     }
 
-    private String calculateSignature(String secret, String payload) throws NoSuchAlgorithmException, InvalidKeyException {
-        Mac mac = Mac.getInstance("HmacSHA256");
-        SecretKeySpec secretKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-        mac.init(secretKey);
-        byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
-        return Base64.getEncoder().encodeToString(signature);
+    private boolean subscribes(WebhookEndpoint endpoint, String eventType) {
+        if (endpoint.getEventTypes() == null) return true;
+        try {
+            List<String> eventTypes = json.readValue(endpoint.getEventTypes(), List.class);
+            return eventTypes.contains(eventType) || eventTypes.contains("*");
+        } catch (Exception e) {
+            log.warn("Skipping webhook endpoint {} with unreadable event types: {}", endpoint.getId(), e.getMessage());
+            return false;
+        }
     }
 }
-
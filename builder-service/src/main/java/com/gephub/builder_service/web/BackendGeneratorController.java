@@ -5,14 +5,14 @@ import com.gephub.builder_service.domain.Project;
 import com.gephub.builder_service.repository.GeneratedBackendRepository;
 import com.gephub.builder_service.repository.ProjectRepository;
 import com.gephub.builder_service.service.BackendGeneratorService;
+import com.gephub.common.id.UuidV7;
+import com.gephub.common.security.GephubPrincipal;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.OffsetDateTime;
@@ -20,8 +20,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
-import static com.gephub.builder_service.security.AuthzUtil.*;
-
 @RestController
 @RequestMapping("/api/v1/builder")
 public class BackendGeneratorController {
@@ -39,16 +37,16 @@ public class BackendGeneratorController {
 
     @PostMapping("/projects/{id}/backend/generate")
     @Transactional
-    public ResponseEntity<?> generate(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id, @Valid @RequestBody GenerateBackendRequest req) {
-        if (!hasScope(jwt, "builder.backend:generate")) return ResponseEntity.status(403).build();
+    public ResponseEntity<?> generate(GephubPrincipal principal, @PathVariable UUID id, @Valid @RequestBody GenerateBackendRequest req) {
+        if (!principal.hasScope("builder.backend:generate")) return ResponseEntity.status(403).build();
         var project = projects.findById(id).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(project.getOrganizationId())) return ResponseEntity.status(403).build();
         try {
             Resource zip = backendGen.generateSpringBootProject(project, req.features() == null ? List.of("api") : req.features());
             Map<String, Object> endpoints = backendGen.parseEndpoints(req.features() == null ? List.of("api") : req.features());
             GeneratedBackend backend = new GeneratedBackend();
-            backend.setId(UUID.randomUUID());
+            backend.setId(UuidV7.next());
             backend.setProjectId(id);
             backend.setBackendType("spring-boot");
             backend.setEndpoints(new com.fasterxml.jackson.databind.ObjectMapper().valueToTree(endpoints).toString());
@@ -64,9 +62,9 @@ public class BackendGeneratorController {
     }
 
     @GetMapping("/projects/{id}/backend")
-    public ResponseEntity<?> get(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
+    public ResponseEntity<?> get(GephubPrincipal principal, @PathVariable UUID id) {
         var project = projects.findById(id).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(project.getOrganizationId())) return ResponseEntity.status(403).build();
         return backends.findByProjectId(id)
                 .<ResponseEntity<?>>map(b -> {
@@ -6,18 +6,18 @@ import com.gephub.builder_service.repository.DeploymentRepository;
 import com.gephub.builder_service.repository.ProjectRepository;
 import com.gephub.builder_service.service.DeploymentService;
 import com.gephub.builder_service.service.GitHubService;
+import com.gephub.common.security.GephubPrincipal;
+import com.gephub.common.web.KeysetPagination;
+import com.gephub.common.web.KeysetQuery;
 import jakarta.transaction.Transactional;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.OffsetDateTime;
 import java.util.Map;
 import java.util.UUID;
 
-import static com.gephub.builder_service.security.AuthzUtil.*;
-
 @RestController
 @RequestMapping("/api/v1/builder")
 public class DeploymentController {
@@ -25,22 +25,27 @@ public class DeploymentController {
     private final GitHubService githubService;
     private final ProjectRepository projects;
     private final DeploymentRepository deployments;
+    private final KeysetPagination pagination;
 
-    public DeploymentController(DeploymentService deploymentService, GitHubService githubService, ProjectRepository projects, DeploymentRepository deployments) {
+    public DeploymentController(DeploymentService deploymentService, GitHubService githubService, ProjectRepository projects, DeploymentRepository deployments,
+                                KeysetPagination pagination) {
         this.deploymentService = deploymentService;
         this.githubService = githubService;
         this.projects = projects;
         this.deployments = deployments;
+        this.pagination = pagination;
     }
 
+    public record DeploymentSummary(String id, String status, String url, String githubRepo, String deployedAt) {}
+
     public record DeployRequest(Boolean githubRepo, String customDomain) {}
 
     @PostMapping("/projects/{id}/deploy")
     @Transactional
-    public ResponseEntity<?> deploy(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id, @RequestBody DeployRequest req) {
-        if (!hasScope(jwt, "builder.project:deploy")) return ResponseEntity.status(403).build();
+    public ResponseEntity<?> deploy(GephubPrincipal principal, @PathVariable UUID id, @RequestBody DeployRequest req) {
+        if (!principal.hasScope("builder.project:deploy")) return ResponseEntity.status(403).build();
         var project = projects.findById(id).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(project.getOrganizationId())) return ResponseEntity.status(403).build();
         String githubRepo = null;
         String githubRepoUrl = null;
@@ -68,26 +73,31 @@ public class DeploymentController {
     }
 
     @GetMapping("/projects/{id}/deployments")
-    public ResponseEntity<?> list(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
+    public ResponseEntity<?> list(GephubPrincipal principal, @PathVariable UUID id,
+                                  @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         var project = projects.findById(id).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(project.getOrganizationId())) return ResponseEntity.status(403).build();
-        List<Deployment> list = deployments.findByProjectId(id);
-        return ResponseEntity.ok(list.stream().map(d -> Map.of(
-                "id", d.getId().toString(),
-                "status", d.getStatus(),
-                "url", deploymentService.getDeploymentUrl(d),
-                "githubRepo", d.getGithubRepo() == null ? "" : d.getGithubRepo(),
-                "deployedAt", d.getDeployedAt() == null ? null : d.getDeployedAt().toString()
-        )).toList());
+        return pagination.respond(KeysetQuery.newestFirst(
+            "SELECT id, status, domain, subdomain, github_repo, deployed_at, created_at FROM deployments WHERE project_id = ?",
+            "created_at", "id",
+            (rs, i) -> {
+                OffsetDateTime deployedAt = rs.getObject("deployed_at", OffsetDateTime.class);
+                String githubRepo = rs.getString("github_repo");
+                return new DeploymentSummary(rs.getString("id"), rs.getString("status"),
+                    deploymentService.getDeploymentUrl(rs.getString("domain"), rs.getString("subdomain")),
+                    githubRepo == null ? "" : githubRepo, deployedAt == null ? null : deployedAt.toString());
+            },
+            id), accept, cursor, limit);
     }
 
     @PostMapping("/deployments/{id}/redeploy")
     @Transactional
-    public ResponseEntity<?> redeploy(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
+    public ResponseEntity<?> redeploy(GephubPrincipal principal, @PathVariable UUID id) {
         var d = deployments.findById(id).orElseThrow();
         var project = projects.findById(d.getProjectId()).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(project.getOrganizationId())) return ResponseEntity.status(403).build();
         // Trigger async redeployment
         deploymentService.deployAsync(d, project);
@@ -96,10 +106,10 @@ public class DeploymentController {
 
     @DeleteMapping("/deployments/{id}")
     @Transactional
-    public ResponseEntity<?> undeploy(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
+    public ResponseEntity<?> undeploy(GephubPrincipal principal, @PathVariable UUID id) {
         var d = deployments.findById(id).orElseThrow();
         var project = projects.findById(d.getProjectId()).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(project.getOrganizationId())) return ResponseEntity.status(403).build();
         deployments.delete(d);
         return ResponseEntity.noContent().build();
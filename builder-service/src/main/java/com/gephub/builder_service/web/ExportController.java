@@ -3,18 +3,15 @@ package com.gephub.builder_service.web;
 import com.gephub.builder_service.domain.Project;
 import com.gephub.builder_service.repository.ProjectRepository;
 import com.gephub.builder_service.service.CodeGeneratorService;
+import com.gephub.common.security.GephubPrincipal;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
 
-import static com.gephub.builder_service.security.AuthzUtil.*;
-
 @RestController
 @RequestMapping("/api/v1/builder")
 public class ExportController {
@@ -27,9 +24,9 @@ public class ExportController {
     }
 
     @PostMapping("/projects/{id}/export")
-    public ResponseEntity<Resource> export(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id, @RequestParam(defaultValue = "nextjs") String format) {
+    public ResponseEntity<Resource> export(GephubPrincipal principal, @PathVariable UUID id, @RequestParam(defaultValue = "nextjs") String format) {
         var project = projects.findById(id).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(project.getOrganizationId())) return ResponseEntity.status(403).build();
         try {
             Resource zip = codeGen.generateFrontendCode(project, format);
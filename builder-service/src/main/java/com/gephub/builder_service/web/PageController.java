@@ -4,42 +4,46 @@ import com.gephub.builder_service.domain.Page;
 import com.gephub.builder_service.domain.Project;
 import com.gephub.builder_service.repository.PageRepository;
 import com.gephub.builder_service.repository.ProjectRepository;
+import com.gephub.common.id.UuidV7;
+import com.gephub.common.security.GephubPrincipal;
+import com.gephub.common.web.KeysetPagination;
+import com.gephub.common.web.KeysetQuery;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.OffsetDateTime;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
-import static com.gephub.builder_service.security.AuthzUtil.*;
-
 @RestController
 @RequestMapping("/api/v1/builder")
 public class PageController {
     private final PageRepository pages;
     private final ProjectRepository projects;
+    private final KeysetPagination pagination;
 
-    public PageController(PageRepository pages, ProjectRepository projects) {
+    public PageController(PageRepository pages, ProjectRepository projects, KeysetPagination pagination) {
         this.pages = pages;
         this.projects = projects;
+        this.pagination = pagination;
     }
 
+    public record PageSummary(String id, String name, String path, String createdAt) {}
+
     public record CreatePageRequest(@NotBlank String name, @NotBlank String path, @NotBlank String componentTree, Map<String, Object> metadata) {}
 
     @PostMapping("/projects/{projectId}/pages")
     @Transactional
-    public ResponseEntity<?> create(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID projectId, @Valid @RequestBody CreatePageRequest req) {
+    public ResponseEntity<?> create(GephubPrincipal principal, @PathVariable UUID projectId, @Valid @RequestBody CreatePageRequest req) {
         var project = projects.findById(projectId).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(project.getOrganizationId())) return ResponseEntity.status(403).build();
         Page p = new Page();
-        p.setId(UUID.randomUUID());
+        p.setId(UuidV7.next());
         p.setProjectId(projectId);
         p.setName(req.name());
         p.setPath(req.path());
@@ -52,24 +56,25 @@ public class PageController {
     }
 
     @GetMapping("/projects/{projectId}/pages")
-    public ResponseEntity<?> list(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID projectId) {
+    public ResponseEntity<?> list(GephubPrincipal principal, @PathVariable UUID projectId,
+                                  @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         var project = projects.findById(projectId).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(project.getOrganizationId())) return ResponseEntity.status(403).build();
-        List<Page> list = pages.findByProjectId(projectId);
-        return ResponseEntity.ok(list.stream().map(p -> Map.of(
-                "id", p.getId().toString(),
-                "name", p.getName(),
-                "path", p.getPath(),
-                "createdAt", p.getCreatedAt().toString()
-        )).toList());
+        return pagination.respond(KeysetQuery.oldestFirst(
+            "SELECT id, name, path, created_at FROM pages WHERE project_id = ?",
+            "created_at", "id",
+            (rs, i) -> new PageSummary(rs.getString("id"), rs.getString("name"), rs.getString("path"),
+                rs.getObject("created_at", OffsetDateTime.class).toString()),
+            projectId), accept, cursor, limit);
     }
 
     @GetMapping("/pages/{id}")
-    public ResponseEntity<?> get(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
+    public ResponseEntity<?> get(GephubPrincipal principal, @PathVariable UUID id) {
         var p = pages.findById(id).orElseThrow();
         var project = projects.findById(p.getProjectId()).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(project.getOrganizationId())) return ResponseEntity.status(403).build();
         try {
             Map<String, Object> metadata = p.getMetadata() == null ? Map.of() : new com.fasterxml.jackson.databind.ObjectMapper().readValue(p.getMetadata(), Map.class);
@@ -93,10 +98,10 @@ public class PageController {
 
     @PutMapping("/pages/{id}")
     @Transactional
-    public ResponseEntity<?> update(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id, @RequestBody Map<String, Object> updates) {
+    public ResponseEntity<?> update(GephubPrincipal principal, @PathVariable UUID id, @RequestBody Map<String, Object> updates) {
         var p = pages.findById(id).orElseThrow();
         var project = projects.findById(p.getProjectId()).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(project.getOrganizationId())) return ResponseEntity.status(403).build();
         if (updates.containsKey("name")) p.setName(updates.get("name").toString());
         if (updates.containsKey("path")) p.setPath(updates.get("path").toString());
@@ -111,10 +116,10 @@ public class PageController {
 
     @DeleteMapping("/pages/{id}")
     @Transactional
-    public ResponseEntity<?> delete(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
+    public ResponseEntity<?> delete(GephubPrincipal principal, @PathVariable UUID id) {
         var p = pages.findById(id).orElseThrow();
         var project = projects.findById(p.getProjectId()).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(project.getOrganizationId())) return ResponseEntity.status(403).build();
         pages.delete(p);
         return ResponseEntity.noContent().build();
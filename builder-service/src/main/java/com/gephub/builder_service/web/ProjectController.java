@@ -2,71 +2,75 @@ package com.gephub.builder_service.web;
 
 import com.gephub.builder_service.domain.Project;
 import com.gephub.builder_service.repository.ProjectRepository;
+import com.gephub.common.id.UuidV7;
+import com.gephub.common.security.GephubPrincipal;
+import com.gephub.common.web.KeysetPagination;
+import com.gephub.common.web.KeysetQuery;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.OffsetDateTime;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
-import static com.gephub.builder_service.security.AuthzUtil.*;
-
 @RestController
 @RequestMapping("/api/v1/builder")
 public class ProjectController {
     private final ProjectRepository projects;
+    private final KeysetPagination pagination;
 
-    public ProjectController(ProjectRepository projects) {
+    public ProjectController(ProjectRepository projects, KeysetPagination pagination) {
         this.projects = projects;
+        this.pagination = pagination;
     }
 
+    public record ProjectSummary(String id, String name, String type, String status, String createdAt) {}
+
     public record CreateProjectRequest(@NotBlank String name, String description, String type, UUID organizationId) {}
 
     @PostMapping("/projects")
     @Transactional
-    public ResponseEntity<?> create(@AuthenticationPrincipal Jwt jwt, @Valid @RequestBody CreateProjectRequest req) {
-        if (!hasScope(jwt, "builder.project:create")) return ResponseEntity.status(403).build();
-        UUID org = orgId(jwt);
+    public ResponseEntity<?> create(GephubPrincipal principal, @Valid @RequestBody CreateProjectRequest req) {
+        if (!principal.hasScope("builder.project:create")) return ResponseEntity.status(403).build();
+        UUID org = principal.organizationId();
         if (req.organizationId() != null && org != null && !org.equals(req.organizationId())) return ResponseEntity.status(403).build();
         UUID orgId = req.organizationId() != null ? req.organizationId() : org;
         if (orgId == null) return ResponseEntity.badRequest().body(Map.of("message", "org_id required"));
         Project p = new Project();
-        p.setId(UUID.randomUUID());
+        p.setId(UuidV7.next());
         p.setOrganizationId(orgId);
         p.setName(req.name());
         p.setDescription(req.description());
         p.setType(req.type() == null ? "website" : req.type());
-        p.setCreatedBy(jwt.getSubject());
+        p.setCreatedBy(principal.subject());
         projects.save(p);
         return ResponseEntity.ok(Map.of("id", p.getId().toString(), "name", p.getName(), "status", p.getStatus()));
     }
 
     @GetMapping("/projects")
-    public ResponseEntity<?> list(@AuthenticationPrincipal Jwt jwt, @RequestParam(required = false) UUID organizationId) {
-        UUID org = orgId(jwt);
+    public ResponseEntity<?> list(GephubPrincipal principal, @RequestParam(required = false) UUID organizationId,
+                                  @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        UUID org = principal.organizationId();
         UUID targetOrg = organizationId != null ? organizationId : org;
         if (targetOrg == null) return ResponseEntity.badRequest().body(Map.of("message", "org_id required"));
         if (org != null && !org.equals(targetOrg)) return ResponseEntity.status(403).build();
-        List<Project> list = projects.findByOrganizationId(targetOrg);
-        return ResponseEntity.ok(list.stream().map(p -> Map.of(
-                "id", p.getId().toString(),
-                "name", p.getName(),
-                "type", p.getType(),
-                "status", p.getStatus(),
-                "createdAt", p.getCreatedAt().toString()
-        )).toList());
+        return pagination.respond(KeysetQuery.newestFirst(
+            "SELECT id, name, type, status, created_at FROM projects WHERE organization_id = ?",
+            "created_at", "id",
+            (rs, i) -> new ProjectSummary(rs.getString("id"), rs.getString("name"), rs.getString("type"), rs.getString("status"),
+                rs.getObject("created_at", OffsetDateTime.class).toString()),
+            targetOrg), accept, cursor, limit);
     }
 
     @GetMapping("/projects/{id}")
-    public ResponseEntity<?> get(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
+    public ResponseEntity<?> get(GephubPrincipal principal, @PathVariable UUID id) {
         var p = projects.findById(id).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(p.getOrganizationId())) return ResponseEntity.status(403).build();
         return ResponseEntity.ok(Map.of(
                 "id", p.getId().toString(),
@@ -80,9 +84,9 @@ public class ProjectController {
 
     @PutMapping("/projects/{id}")
     @Transactional
-    public ResponseEntity<?> update(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id, @RequestBody Map<String, Object> updates) {
+    public ResponseEntity<?> update(GephubPrincipal principal, @PathVariable UUID id, @RequestBody Map<String, Object> updates) {
         var p = projects.findById(id).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(p.getOrganizationId())) return ResponseEntity.status(403).build();
         if (updates.containsKey("name")) p.setName(updates.get("name").toString());
         if (updates.containsKey("description")) p.setDescription(updates.get("description").toString());
@@ -94,9 +98,9 @@ public class ProjectController {
 
     @DeleteMapping("/projects/{id}")
     @Transactional
-    public ResponseEntity<?> delete(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
+    public ResponseEntity<?> delete(GephubPrincipal principal, @PathVariable UUID id) {
         var p = projects.findById(id).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(p.getOrganizationId())) return ResponseEntity.status(403).build();
         projects.delete(p);
         return ResponseEntity.noContent().build();
@@ -2,12 +2,12 @@ package com.gephub.builder_service.web;
 
 import com.gephub.builder_service.domain.WebhookEndpoint;
 import com.gephub.builder_service.repository.WebhookEndpointRepository;
+import com.gephub.common.id.UuidV7;
+import com.gephub.common.security.GephubPrincipal;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.OffsetDateTime;
@@ -15,8 +15,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
-import static com.gephub.builder_service.security.AuthzUtil.*;
-
 @RestController
 @RequestMapping("/api/v1/builder/webhooks")
 public class WebhookController {
@@ -30,13 +28,13 @@ public class WebhookController {
 
     @PostMapping
     @Transactional
-    public ResponseEntity<?> create(@AuthenticationPrincipal Jwt jwt, @Valid @RequestBody CreateWebhookRequest req) {
-        if (!hasScope(jwt, "builder.webhook:create")) return ResponseEntity.status(403).build();
-        UUID org = orgId(jwt);
+    public ResponseEntity<?> create(GephubPrincipal principal, @Valid @RequestBody CreateWebhookRequest req) {
+        if (!principal.hasScope("builder.webhook:create")) return ResponseEntity.status(403).build();
+        UUID org = principal.organizationId();
         if (org == null) return ResponseEntity.badRequest().body(Map.of("message", "org_id required"));
         
         WebhookEndpoint endpoint = new WebhookEndpoint();
-        endpoint.setId(UUID.randomUUID());
+        endpoint.setId(UuidV7.next());
         endpoint.setOrganizationId(org);
         endpoint.setUrl(req.url());
         if (req.eventTypes() != null) {
@@ -50,8 +48,8 @@ public class WebhookController {
     }
 
     @GetMapping
-    public ResponseEntity<?> list(@AuthenticationPrincipal Jwt jwt) {
-        UUID org = orgId(jwt);
+    public ResponseEntity<?> list(GephubPrincipal principal) {
+        UUID org = principal.organizationId();
         if (org == null) return ResponseEntity.badRequest().body(Map.of("message", "org_id required"));
         List<WebhookEndpoint> list = webhooks.findByOrganizationIdAndIsActive(org, true);
         return ResponseEntity.ok(list.stream().map(w -> {
@@ -76,9 +74,9 @@ public class WebhookController {
 
     @DeleteMapping("/{id}")
     @Transactional
-    public ResponseEntity<?> delete(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
+    public ResponseEntity<?> delete(GephubPrincipal principal, @PathVariable UUID id) {
         var endpoint = webhooks.findById(id).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(endpoint.getOrganizationId())) return ResponseEntity.status(403).build();
         endpoint.setIsActive(false);
         webhooks.save(endpoint);
@@ -0,0 +1,9 @@
+-- Keyset pagination on (created_at, id) within each parent. Built CONCURRENTLY so large tables stay
+-- writable; every statement here must therefore be non-transactional.
+-- Drop INVALID indexes left by a failed run before retrying it; see "Database Migrations" in README.md.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_projects_org_created ON projects (organization_id, created_at, id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_projects_org;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pages_project_created ON pages (project_id, created_at, id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_pages_project;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_deployments_project_created ON deployments (project_id, created_at, id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_deployments_project;
@@ -0,0 +1,19 @@
+-- Webhook deliveries, written in the same transaction as the change they announce and sent by WebhookOutbox.
+-- payload is TEXT rather than JSONB so the signed bytes are exactly the ones stored.
+CREATE TABLE webhook_outbox (
+    id UUID PRIMARY KEY,
+    endpoint_id UUID NOT NULL REFERENCES webhook_endpoints(id) ON DELETE CASCADE,
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'pending',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    last_status INT,
+    last_error TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    delivered_at TIMESTAMPTZ
+);
+
+CREATE INDEX idx_webhook_outbox_due ON webhook_outbox(next_attempt_at) WHERE status = 'pending';
+CREATE INDEX idx_webhook_outbox_endpoint ON webhook_outbox(endpoint_id);
+CREATE INDEX idx_webhook_outbox_delivered ON webhook_outbox(delivered_at) WHERE status = 'delivered';
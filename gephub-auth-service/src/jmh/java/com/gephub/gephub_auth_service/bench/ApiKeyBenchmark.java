@@ -0,0 +1,119 @@
+package com.gephub.gephub_auth_service.bench;
+
+import com.gephub.gephub_auth_service.domain.ApiKey;
+import com.gephub.gephub_auth_service.domain.Organization;
+import com.gephub.gephub_auth_service.domain.Product;
+import com.gephub.gephub_auth_service.repository.ApiKeyRepository;
+import com.gephub.gephub_auth_service.repository.ProductRepository;
+import com.gephub.gephub_auth_service.service.ApiKeyPrefixFilter;
+import com.gephub.gephub_auth_service.service.ApiKeySecretHasher;
+import com.gephub.gephub_auth_service.service.ApiKeyService;
+import com.gephub.gephub_auth_service.service.ApiKeyVerificationCache;
+import com.gephub.gephub_auth_service.service.IssuedTokenCache;
+import com.gephub.gephub_auth_service.service.ProductCatalog;
+import com.gephub.gephub_auth_service.service.TokenRevocationPublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Presented-key parsing and secret verification, against an in-memory key store. {@code verify*} go
+ * through {@link ApiKeyService#verifyAndLoad} with the verification cache disabled or warm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiKeyBenchmark {
+    private static final String PREFIX = "gpk_live_AbCdEfGh";
+    private static final String SECRET = "q2Jm9zW4r1kXo8pTn3vYb6cLd0eFg5hUiKjAaBsCtDu";
+
+    private ApiKeySecretHasher hasher;
+    private ApiKeyService uncached;
+    private ApiKeyService cached;
+    private String presented;
+    private String v2Hash;
+    private String bcryptHash;
+
+    @Setup
+    public void setup() {
+        hasher = new ApiKeySecretHasher(Fixtures.bcrypt(), Fixtures.PEPPER, new SimpleMeterRegistry());
+        v2Hash = hasher.hash(SECRET);
+        bcryptHash = Fixtures.bcrypt().encode(SECRET);
+        presented = PREFIX + "." + SECRET;
+
+        Organization org = new Organization();
+        org.setId(UUID.randomUUID());
+        org.setName("bench");
+        Product kyc = new Product();
+        kyc.setId(1);
+        kyc.setCode("kyc");
+        kyc.setName("KYC");
+        ApiKey key = new ApiKey();
+        key.setId(UUID.randomUUID());
+        key.setOrganization(org);
+        key.setKeyPrefix(PREFIX);
+        key.setSecretHash(v2Hash);
+        key.setEnvironment("live");
+        key.setProducts(Set.of(kyc));
+
+        ApiKeyRepository keys = InMemoryRepositories.of(ApiKeyRepository.class, Map.of(
+            "findByKeyPrefix", args -> PREFIX.equals(args[0]) ? Optional.of(key) : Optional.empty(),
+            "save", args -> args[0]));
+        ProductCatalog catalog = new ProductCatalog(InMemoryRepositories.of(ProductRepository.class, Map.of(
+            "findAll", args -> List.of(kyc))));
+        uncached = service(keys, catalog, 0);
+        cached = service(keys, catalog, 300);
+        cached.verifyAndLoad(presented);
+    }
+
+    private ApiKeyService service(ApiKeyRepository keys, ProductCatalog catalog, long cacheTtlSeconds) {
+        return new ApiKeyService(keys, catalog, null, hasher,
+            new ApiKeyVerificationCache(null, cacheTtlSeconds, 10_000),
+            new IssuedTokenCache(null, false, 120, 10_000),
+            new TokenRevocationPublisher(null, 900),
+            new ApiKeyPrefixFilter(null, null, 100_000, 600_000));
+    }
+
+    @Benchmark
+    public ApiKeyService.ParsedKey parsePresentedKey() {
+        return uncached.parsePresentedKey(presented);
+    }
+
+    @Benchmark
+    public boolean matchesV2() {
+        return hasher.matches(SECRET, v2Hash);
+    }
+
+    @Benchmark
+    public boolean matchesLegacyBcrypt() {
+        return hasher.matches(SECRET, bcryptHash);
+    }
+
+    @Benchmark
+    public ApiKeyService.VerifiedKey verifyUncached() {
+        return uncached.verifyAndLoad(presented);
+    }
+
+    @Benchmark
+    public ApiKeyService.VerifiedKey verifyCached() {
+        return cached.verifyAndLoad(presented);
+    }
+}
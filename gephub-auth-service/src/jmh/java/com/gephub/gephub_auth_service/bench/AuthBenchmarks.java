@@ -0,0 +1,40 @@
+package com.gephub.gephub_auth_service.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Runs the auth-service benchmarks once per thread count and writes one JSON result file per run
+ * ({@code auth-t<threads>.json}), so results can be diffed between releases:
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.threads=1,8 -Djmh.include=JwtBenchmark
+ * </pre>
+ * {@link UuidInsertBenchmark} writes to a database and only runs when {@code jmh.include} names it.
+ */
+public final class AuthBenchmarks {
+    private static final String DATABASE_BENCHMARK = UuidInsertBenchmark.class.getSimpleName();
+
+    private AuthBenchmarks() {}
+
+    public static void main(String[] args) throws Exception {
+        String include = System.getProperty("jmh.include", ".*Benchmark");
+        Path resultDir = Paths.get(System.getProperty("jmh.resultDir", "target/jmh"));
+        Files.createDirectories(resultDir);
+        for (String t : System.getProperty("jmh.threads", "1").split(",")) {
+            int threads = Integer.parseInt(t.trim());
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(AuthBenchmarks.class.getPackageName() + "." + include)
+                .threads(threads)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultDir.resolve("auth-t" + threads + ".json").toString());
+            if (!include.contains(DATABASE_BENCHMARK)) options.exclude(AuthBenchmarks.class.getPackageName() + "." + DATABASE_BENCHMARK);
+            new Runner(options.build()).run();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.gephub.gephub_auth_service.bench;
+
+import com.gephub.gephub_auth_service.service.JwtKeyRing;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+final class Fixtures {
+    static final String PEPPER = "benchmark-pepper";
+
+    private Fixtures() {}
+
+    static JwtKeyRing keyRing(String defaultAlgorithm) {
+        return new JwtKeyRing(defaultAlgorithm, "RS256,ES256", "", false, 86400, 1800, 900, 60000, 300, "", "");
+    }
+
+    static BCryptPasswordEncoder bcrypt() {
+        return new BCryptPasswordEncoder();
+    }
+}
@@ -0,0 +1,27 @@
+package com.gephub.gephub_auth_service.bench;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Offline stand-ins for Spring Data repositories: a proxy that answers the named methods from the given
+ * functions and fails on anything else, so a benchmark never silently measures an unexpected call.
+ */
+final class InMemoryRepositories {
+    private InMemoryRepositories() {}
+
+    static <T> T of(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            Function<Object[], Object> impl = methods.get(method.getName());
+            if (impl != null) return impl.apply(args);
+            return switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + "(in-memory)";
+                case "hashCode" -> System.identityHashCode(p);
+                case "equals" -> p == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        });
+        return type.cast(proxy);
+    }
+}
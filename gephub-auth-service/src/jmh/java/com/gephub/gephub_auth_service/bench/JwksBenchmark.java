@@ -0,0 +1,55 @@
+package com.gephub.gephub_auth_service.bench;
+
+import com.gephub.gephub_auth_service.service.JwtKeyRing;
+import com.gephub.gephub_auth_service.web.JwksController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWKS serving: full and conditional responses from the pre-rendered document, and the cost of
+ * serializing the key set that pre-rendering avoids on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwksBenchmark {
+    private JwtKeyRing keyRing;
+    private JwksController controller;
+    private String etag;
+
+    @Setup
+    public void setup() {
+        keyRing = Fixtures.keyRing("RS256");
+        controller = new JwksController(keyRing, 300);
+        etag = controller.jwks(null).getHeaders().getETag();
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> serve() {
+        return controller.jwks(null);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> serveNotModified() {
+        return controller.jwks(etag);
+    }
+
+    @Benchmark
+    public String serializeKeySet() {
+        return keyRing.publicJwkSet().toString();
+    }
+}
@@ -0,0 +1,53 @@
+package com.gephub.gephub_auth_service.bench;
+
+import com.gephub.gephub_auth_service.service.JwtKeyRing;
+import com.gephub.gephub_auth_service.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access-token minting with freshly generated keys for each supported signing algorithm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    @Param({"RS256", "ES256"})
+    public String algorithm;
+
+    private JwtService jwtService;
+    private Map<String, Object> claims;
+
+    @Setup
+    public void setup() {
+        JwtKeyRing keyRing = Fixtures.keyRing(algorithm);
+        jwtService = new JwtService(new NimbusJwtEncoder(keyRing), keyRing, "https://auth.gephub.local", new SimpleMeterRegistry());
+        claims = Map.of(
+            "org_id", "5f0c6a0e-7c1b-4f7e-9d57-0f5d2b1a9c11",
+            "role", "DEV",
+            "scopes", List.of("kyc.*", "meets.*", "builder.*"));
+    }
+
+    @Benchmark
+    public String issueToken() {
+        return jwtService.issueToken("apiKey:0b7f3c52-4a57-4e52-8f0c-2f4f7d3a1e90", claims, 900);
+    }
+}
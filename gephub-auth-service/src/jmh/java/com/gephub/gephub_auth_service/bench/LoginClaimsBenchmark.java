@@ -0,0 +1,48 @@
+package com.gephub.gephub_auth_service.bench;
+
+import com.gephub.gephub_auth_service.domain.OrganizationRole;
+import com.gephub.gephub_auth_service.service.MembershipCache;
+import com.gephub.gephub_auth_service.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login claim and scope building for a principal whose primary membership has the given role.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginClaimsBenchmark {
+    @Param({"OWNER", "READONLY"})
+    public String role;
+
+    private UserService.LoginPrincipal principal;
+
+    @Setup
+    public void setup() {
+        principal = new UserService.LoginPrincipal(UUID.randomUUID(), "bench@gephub.local",
+            List.of(new MembershipCache.MembershipView(UUID.randomUUID(), OrganizationRole.valueOf(role))));
+    }
+
+    @Benchmark
+    public Map<String, Object> loginClaims() {
+        return principal.claims();
+    }
+}
@@ -0,0 +1,157 @@
+package com.gephub.gephub_auth_service.bench;
+
+import com.gephub.common.id.UuidV7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batched inserts into a table keyed by random v4 or time-ordered v7 ids, on top of {@code preloadRows}
+ * existing rows. Unlike the other benchmarks this one needs Postgres: it creates and drops its own tables in the
+ * database named by {@code BENCH_DB_URL} (with {@code BENCH_DB_USER}/{@code BENCH_DB_PASSWORD}), which should be a
+ * scratch database rather than the service's own, and it only runs when {@code jmh.include} names it. Throughput
+ * is in rows per second; the primary-key index size and the WAL written since the preload are printed when each
+ * trial ends.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UuidInsertBenchmark {
+    static final int BATCH = 500;
+
+    @State(Scope.Benchmark)
+    public static class Table {
+        @Param({"v4", "v7"})
+        public String kind;
+
+        @Param({"1000000"})
+        public int preloadRows;
+
+        String name;
+        String walStart;
+
+        @Setup(Level.Trial)
+        public void create() throws SQLException {
+            name = "bench_uuid_" + kind;
+            try (Connection c = connect(); Statement st = c.createStatement()) {
+                st.execute("DROP TABLE IF EXISTS " + name);
+                st.execute("CREATE TABLE " + name + " (id uuid PRIMARY KEY, payload text NOT NULL, created_at timestamptz NOT NULL DEFAULT now())");
+                c.setAutoCommit(false);
+                try (PreparedStatement ps = c.prepareStatement("INSERT INTO " + name + " (id, payload) VALUES (?, ?)")) {
+                    for (int i = 0; i < preloadRows; i++) {
+                        ps.setObject(1, nextId());
+                        ps.setString(2, "preload");
+                        ps.addBatch();
+                        if ((i + 1) % 10_000 == 0) {
+                            ps.executeBatch();
+                            c.commit();
+                        }
+                    }
+                    ps.executeBatch();
+                    c.commit();
+                }
+                c.setAutoCommit(true);
+                st.execute("VACUUM ANALYZE " + name);
+                try (ResultSet rs = st.executeQuery("SELECT pg_current_wal_lsn()::text")) {
+                    rs.next();
+                    walStart = rs.getString(1);
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void report() throws SQLException {
+            try (Connection c = connect(); PreparedStatement ps = c.prepareStatement("""
+                    SELECT (SELECT count(*) FROM %s),
+                           pg_relation_size('%s_pkey'),
+                           pg_table_size('%s'),
+                           pg_wal_lsn_diff(pg_current_wal_lsn(), ?::pg_lsn)
+                    """.formatted(name, name, name))) {
+                ps.setString(1, walStart);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    System.out.printf("%n%s: %,d rows, primary key index %,d bytes, table %,d bytes, WAL since preload %,d bytes%n",
+                        name, rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4));
+                }
+                try (Statement st = c.createStatement()) {
+                    st.execute("DROP TABLE " + name);
+                }
+            }
+        }
+
+        UUID nextId() {
+            return "v7".equals(kind) ? UuidV7.next() : UUID.randomUUID();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        Connection connection;
+        PreparedStatement insert;
+
+        @Setup(Level.Trial)
+        public void open(Table table) throws SQLException {
+            connection = connect();
+            insert = connection.prepareStatement("INSERT INTO " + table.name + " (id, payload) VALUES (?, ?)");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] insertBatch(Table table, Session session) throws SQLException {
+        PreparedStatement ps = session.insert;
+        for (int i = 0; i < BATCH; i++) {
+            ps.setObject(1, table.nextId());
+            ps.setString(2, "chat message or media row");
+            ps.addBatch();
+        }
+        return ps.executeBatch();
+    }
+
+    static Connection connect() throws SQLException {
+        String url = env("BENCH_DB_URL");
+        if (url == null) throw new IllegalStateException("UuidInsertBenchmark needs BENCH_DB_URL pointing at a scratch Postgres database");
+        Properties props = new Properties();
+        props.setProperty("reWriteBatchedInserts", "true");
+        if (env("BENCH_DB_USER") != null) props.setProperty("user", env("BENCH_DB_USER"));
+        if (env("BENCH_DB_PASSWORD") != null) props.setProperty("password", env("BENCH_DB_PASSWORD"));
+        try {
+            return DriverManager.getConnection(url, props);
+        } catch (SQLException e) {
+            throw new IllegalStateException("UuidInsertBenchmark needs Postgres at " + url, e);
+        }
+    }
+
+    private static String env(String name) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? null : value;
+    }
+}
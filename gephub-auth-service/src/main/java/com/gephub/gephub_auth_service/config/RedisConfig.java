@@ -0,0 +1,29 @@
+package com.gephub.gephub_auth_service.config;
+
+import com.gephub.gephub_auth_service.service.ApiKeyPrefixFilter;
+import com.gephub.gephub_auth_service.service.ApiKeyVerificationCache;
+import com.gephub.gephub_auth_service.service.IssuedTokenCache;
+import com.gephub.gephub_auth_service.service.MembershipCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class RedisConfig {
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       ApiKeyVerificationCache apiKeyVerificationCache,
+                                                                       IssuedTokenCache issuedTokenCache,
+                                                                       MembershipCache membershipCache,
+                                                                       ApiKeyPrefixFilter apiKeyPrefixFilter) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(apiKeyVerificationCache, new ChannelTopic(ApiKeyVerificationCache.EVICT_CHANNEL));
+        container.addMessageListener(issuedTokenCache, new ChannelTopic(ApiKeyVerificationCache.EVICT_CHANNEL));
+        container.addMessageListener(membershipCache, new ChannelTopic(MembershipCache.EVICT_CHANNEL));
+        container.addMessageListener(apiKeyPrefixFilter, new ChannelTopic(ApiKeyPrefixFilter.CHANNEL));
+        return container;
+    }
+}
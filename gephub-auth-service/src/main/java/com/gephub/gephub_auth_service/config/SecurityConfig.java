@@ -1,5 +1,6 @@
 package com.gephub.gephub_auth_service.config;
 
+import com.gephub.gephub_auth_service.service.CredentialHashingExecutor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -15,8 +16,8 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 public class SecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(CredentialHashingExecutor hashingExecutor) {
+        return hashingExecutor.offload(new BCryptPasswordEncoder());
     }
 
     @Bean
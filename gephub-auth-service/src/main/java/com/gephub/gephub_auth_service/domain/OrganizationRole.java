@@ -1,10 +1,24 @@
 package com.gephub.gephub_auth_service.domain;
 
+import java.util.List;
+
 public enum OrganizationRole {
-    OWNER,
-    ADMIN,
-    DEV,
-    READONLY
-}
+    OWNER(List.of("kyc.*", "meets.*", "builder.*")),
+    ADMIN(List.of("kyc.*", "meets.*", "builder.*")),
+    DEV(List.of("kyc.*", "meets.*", "builder.*")),
+    READONLY(List.of("kyc.session:read", "kyc.result:read", "meets.room:join", "builder.project:read"));
+
+    private final List<String> scopes;
 
+    OrganizationRole(List<String> scopes) {
+        this.scopes = scopes;
+    }
 
+    public List<String> scopes() {
+        return scopes;
+    }
+
+    public boolean atLeast(OrganizationRole required) {
+        return ordinal() <= required.ordinal();
+    }
+}
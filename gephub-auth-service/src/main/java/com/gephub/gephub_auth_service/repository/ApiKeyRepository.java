@@ -1,15 +1,25 @@
 package com.gephub.gephub_auth_service.repository;
 
 import com.gephub.gephub_auth_service.domain.ApiKey;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface ApiKeyRepository extends JpaRepository<ApiKey, UUID> {
     Optional<ApiKey> findByKeyPrefix(String keyPrefix);
-    List<ApiKey> findByOrganization_Id(UUID organizationId);
-}
-
 
+    /**
+     * Swaps in a rehashed secret only if the key is still active and still carries the hash that was verified, so a
+     * revoke or rotate that commits meanwhile is never overwritten.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE api_keys SET secret_hash = :newHash WHERE id = :id AND secret_hash = :oldHash AND status = 'active'",
+        nativeQuery = true)
+    int upgradeSecretHash(@Param("id") UUID id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+}
@@ -0,0 +1,12 @@
+package com.gephub.gephub_auth_service.repository;
+
+import com.gephub.gephub_auth_service.domain.OrganizationRole;
+
+import java.util.UUID;
+
+/**
+ * One row of the login projection: the user's credentials joined with one of its memberships.
+ * {@code organizationId} and {@code role} are null for a user without memberships.
+ */
+public record UserMembershipRow(UUID userId, String email, String passwordHash, boolean active,
+                                UUID organizationId, OrganizationRole role) {}
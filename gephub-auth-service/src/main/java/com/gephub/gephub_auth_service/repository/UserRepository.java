@@ -2,12 +2,20 @@ package com.gephub.gephub_auth_service.repository;
 
 import com.gephub.gephub_auth_service.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByEmail(String email);
-}
-
 
+    @Query("""
+        select new com.gephub.gephub_auth_service.repository.UserMembershipRow(u.id, u.email, u.passwordHash, u.active, m.id.organizationId, m.role)
+        from User u left join Membership m on m.id.userId = u.id
+        where u.email = :email
+        """)
+    List<UserMembershipRow> findLoginRows(@Param("email") String email);
+}
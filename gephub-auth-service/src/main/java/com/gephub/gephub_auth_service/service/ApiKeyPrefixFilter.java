@@ -0,0 +1,143 @@
+package com.gephub.gephub_auth_service.service;
+
+import com.gephub.common.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Bloom filter of active API key prefixes, so presented keys with an unknown prefix are rejected without a
+ * database lookup. Built from {@code api_keys} at startup and on a schedule, which also drops revoked and
+ * rotated-away prefixes. New prefixes are added locally right away and, once the transaction commits,
+ * broadcast on {@link #CHANNEL} and recorded in {@link #RECENT_KEY}, which every node polls to recover
+ * broadcasts it missed. Until the first build succeeds every prefix is let through.
+ */
+@Component
+public class ApiKeyPrefixFilter implements MessageListener {
+    public static final String CHANNEL = "gephub:apikeys:prefixes";
+    public static final String RECENT_KEY = "gephub:apikeys:prefixes:recent";
+
+    private static final Logger log = LoggerFactory.getLogger(ApiKeyPrefixFilter.class);
+    private static final int HASHES = 7;
+    private static final int BITS_PER_KEY = 10;
+
+    private final JdbcTemplate jdbc;
+    private final StringRedisTemplate redis;
+    private final int expectedKeys;
+    private final long rebuildIntervalMs;
+    private volatile BloomFilter bloom;
+    private volatile BloomFilter building;
+    private volatile long lastSyncMillis;
+
+    public ApiKeyPrefixFilter(JdbcTemplate jdbc, StringRedisTemplate redis,
+                              @Value("${gephub.apikeys.prefixFilter.expectedKeys:100000}") int expectedKeys,
+                              @Value("${gephub.apikeys.prefixFilter.rebuildIntervalMs:600000}") long rebuildIntervalMs) {
+        this.jdbc = jdbc;
+        this.redis = redis;
+        this.expectedKeys = Math.max(1024, expectedKeys);
+        this.rebuildIntervalMs = rebuildIntervalMs;
+    }
+
+    /**
+     * False only when {@code prefix} is certainly not an active key prefix.
+     */
+    public boolean mightContain(String prefix) {
+        BloomFilter b = bloom;
+        return b == null || b.mightContain(prefix);
+    }
+
+    /**
+     * Adds a newly issued prefix on this node now and on every node once the surrounding transaction commits.
+     */
+    public void add(String prefix) {
+        addLocal(prefix);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(prefix);
+                }
+            });
+        } else {
+            publish(prefix);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        addLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${gephub.apikeys.prefixFilter.rebuildIntervalMs:600000}", initialDelayString = "${gephub.apikeys.prefixFilter.rebuildIntervalMs:600000}")
+    public void rebuild() {
+        try {
+            long startedAt = System.currentTimeMillis();
+            Integer active = jdbc.queryForObject("SELECT count(*) FROM api_keys WHERE status = 'active'", Integer.class);
+            BloomFilter fresh = newFilter(Math.max(expectedKeys, active == null ? 0 : active * 2));
+            building = fresh;
+            jdbc.query("SELECT key_prefix FROM api_keys WHERE status = 'active'", rs -> {
+                fresh.add(rs.getString(1));
+            });
+            synchronized (this) {
+                bloom = fresh;
+                building = null;
+            }
+            lastSyncMillis = startedAt;
+        } catch (Exception e) {
+            building = null;
+            log.warn("Failed to rebuild API key prefix filter, {}: {}", bloom == null ? "allowing all prefixes" : "keeping the previous one", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-applies prefixes issued since the last sync, covering broadcasts missed while disconnected.
+     */
+    @Scheduled(fixedDelayString = "${gephub.apikeys.prefixFilter.syncIntervalMs:30000}", initialDelayString = "${gephub.apikeys.prefixFilter.syncIntervalMs:30000}")
+    public void syncRecent() {
+        if (bloom == null) return;
+        try {
+            long now = System.currentTimeMillis();
+            Set<String> recent = redis.opsForZSet().rangeByScore(RECENT_KEY, lastSyncMillis - 60_000, Double.POSITIVE_INFINITY);
+            if (recent != null) recent.forEach(this::addLocal);
+            lastSyncMillis = now;
+        } catch (Exception e) {
+            log.warn("Failed to sync recent API key prefixes: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void addLocal(String prefix) {
+        BloomFilter b = bloom;
+        if (b != null) b.add(prefix);
+        BloomFilter next = building;
+        if (next != null) next.add(prefix);
+    }
+
+    private void publish(String prefix) {
+        try {
+            long now = System.currentTimeMillis();
+            redis.opsForZSet().add(RECENT_KEY, prefix, now);
+            redis.opsForZSet().removeRangeByScore(RECENT_KEY, Double.NEGATIVE_INFINITY, now - 2 * rebuildIntervalMs);
+            redis.convertAndSend(CHANNEL, prefix);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast API key prefix {}: {}", prefix, e.getMessage());
+        }
+    }
+
+    private static BloomFilter newFilter(int keys) {
+        return new BloomFilter((long) keys * BITS_PER_KEY, HASHES);
+    }
+}
@@ -0,0 +1,93 @@
+package com.gephub.gephub_auth_service.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashes API key secrets as {@code v2$<base64url(HMAC-SHA-256(pepper, secret))>}. Secrets are 256-bit
+ * random values, so a keyed hash is as strong as a slow password hash while verifying in microseconds.
+ * Hashes without a version tag are legacy BCrypt and are still accepted until upgraded. Every hash and
+ * verification is timed as {@code gephub.apikeys.hash}, tagged by operation, scheme and outcome.
+ */
+@Component
+public class ApiKeySecretHasher {
+    static final String V2_PREFIX = "v2$";
+
+    private final PasswordEncoder legacyEncoder;
+    private final SecretKeySpec pepper;
+    private final ThreadLocal<Mac> macs;
+    private final Timer hashTimer;
+    private final Timer v2Match;
+    private final Timer v2Mismatch;
+    private final Timer legacyMatch;
+    private final Timer legacyMismatch;
+
+    public ApiKeySecretHasher(PasswordEncoder legacyEncoder, @Value("${gephub.apikeys.pepper}") String pepper, MeterRegistry meterRegistry) {
+        if (pepper == null || pepper.isBlank()) throw new IllegalStateException("gephub.apikeys.pepper must be set");
+        this.legacyEncoder = legacyEncoder;
+        this.pepper = new SecretKeySpec(pepper.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(this.pepper);
+                return mac;
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to initialize HmacSHA256", e);
+            }
+        });
+        this.hashTimer = timer(meterRegistry, "hash", "v2", "none");
+        this.v2Match = timer(meterRegistry, "verify", "v2", "match");
+        this.v2Mismatch = timer(meterRegistry, "verify", "v2", "mismatch");
+        this.legacyMatch = timer(meterRegistry, "verify", "bcrypt", "match");
+        this.legacyMismatch = timer(meterRegistry, "verify", "bcrypt", "mismatch");
+    }
+
+    public String hash(String secret) {
+        long started = System.nanoTime();
+        String hash = V2_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(mac(secret));
+        hashTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return hash;
+    }
+
+    public boolean matches(String secret, String storedHash) {
+        if (storedHash == null) return false;
+        long started = System.nanoTime();
+        if (storedHash.startsWith(V2_PREFIX)) {
+            byte[] expected;
+            try {
+                expected = Base64.getUrlDecoder().decode(storedHash.substring(V2_PREFIX.length()));
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            boolean match = MessageDigest.isEqual(expected, mac(secret));
+            (match ? v2Match : v2Mismatch).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return match;
+        }
+        boolean match = legacyEncoder.matches(secret, storedHash);
+        (match ? legacyMatch : legacyMismatch).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return match;
+    }
+
+    public boolean needsUpgrade(String storedHash) {
+        return storedHash == null || !storedHash.startsWith(V2_PREFIX);
+    }
+
+    private byte[] mac(String secret) {
+        Mac mac = macs.get();
+        return mac.doFinal(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Timer timer(MeterRegistry registry, String op, String scheme, String outcome) {
+        return Timer.builder("gephub.apikeys.hash").tags("op", op, "scheme", scheme, "outcome", outcome).register(registry);
+    }
+}
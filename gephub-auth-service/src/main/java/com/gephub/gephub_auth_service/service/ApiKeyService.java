@@ -1,17 +1,24 @@
 package com.gephub.gephub_auth_service.service;
 
+import com.gephub.common.id.UuidV7;
+import com.gephub.common.web.KeysetQuery;
 import com.gephub.gephub_auth_service.domain.ApiKey;
 import com.gephub.gephub_auth_service.domain.Organization;
 import com.gephub.gephub_auth_service.domain.Product;
 import com.gephub.gephub_auth_service.repository.ApiKeyRepository;
-import com.gephub.gephub_auth_service.repository.ProductRepository;
 import jakarta.transaction.Transactional;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.security.SecureRandom;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -19,16 +26,37 @@ import java.util.stream.Collectors;
 @Service
 public class ApiKeyService {
     private final ApiKeyRepository apiKeyRepository;
-    private final ProductRepository productRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final ProductCatalog productCatalog;
+    private final JdbcTemplate jdbc;
+    private final ApiKeySecretHasher secretHasher;
+    private final ApiKeyVerificationCache verificationCache;
+    private final IssuedTokenCache issuedTokenCache;
+    private final TokenRevocationPublisher revocationPublisher;
+    private final ApiKeyPrefixFilter prefixFilter;
     private final SecureRandom secureRandom = new SecureRandom();
 
     public record GeneratedKey(String prefix, String secret, UUID id) {}
 
-    public ApiKeyService(ApiKeyRepository apiKeyRepository, ProductRepository productRepository, PasswordEncoder passwordEncoder) {
+    public record VerifiedKey(UUID id, UUID organizationId, String keyPrefix, Set<String> productCodes) {}
+
+    public record KeySpec(UUID organizationId, String environment, List<String> productCodes) {}
+
+    private record KeyRow(UUID id, UUID organizationId, String keyPrefix, String environment) {}
+
+    public record KeySummary(String id, String organizationId, String keyPrefix, String environment, String status,
+                             List<String> products, String createdAt, String lastUsedAt) {}
+
+    public ApiKeyService(ApiKeyRepository apiKeyRepository, ProductCatalog productCatalog, JdbcTemplate jdbc, ApiKeySecretHasher secretHasher,
+                         ApiKeyVerificationCache verificationCache, IssuedTokenCache issuedTokenCache,
+                         TokenRevocationPublisher revocationPublisher, ApiKeyPrefixFilter prefixFilter) {
         this.apiKeyRepository = apiKeyRepository;
-        this.productRepository = productRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.productCatalog = productCatalog;
+        this.jdbc = jdbc;
+        this.secretHasher = secretHasher;
+        this.verificationCache = verificationCache;
+        this.issuedTokenCache = issuedTokenCache;
+        this.revocationPublisher = revocationPublisher;
+        this.prefixFilter = prefixFilter;
     }
 
     @Transactional
@@ -37,18 +65,16 @@ public class ApiKeyService {
         String prefix = generatePrefix(environment);
 
         ApiKey apiKey = new ApiKey();
-        apiKey.setId(UUID.randomUUID());
+        apiKey.setId(UuidV7.next());
         apiKey.setOrganization(organization);
         apiKey.setCreatedByUserId(createdByUserId);
         apiKey.setEnvironment(environment);
         apiKey.setKeyPrefix(prefix);
-        apiKey.setSecretHash(passwordEncoder.encode(secret));
-        Set<Product> products = productCodes.stream()
-            .map(code -> productRepository.findByCode(code).orElseThrow(() -> new IllegalArgumentException("Unknown product: " + code)))
-            .collect(Collectors.toSet());
-        apiKey.setProducts(products);
+        apiKey.setSecretHash(secretHasher.hash(secret));
+        apiKey.setProducts(productCatalog.resolveAll(productCodes));
 
         apiKeyRepository.save(apiKey);
+        prefixFilter.add(prefix);
         return new GeneratedKey(prefix, renderDisplaySecret(environment, prefix, secret), apiKey.getId());
     }
 
@@ -57,28 +83,141 @@ public class ApiKeyService {
         ApiKey apiKey = apiKeyRepository.findById(apiKeyId).orElseThrow();
         apiKey.setStatus("revoked");
         apiKeyRepository.save(apiKey);
+        invalidateIssued(apiKey.getId(), apiKey.getKeyPrefix(), true);
     }
 
     @Transactional
     public GeneratedKey rotate(UUID apiKeyId) {
         ApiKey apiKey = apiKeyRepository.findById(apiKeyId).orElseThrow();
+        String oldPrefix = apiKey.getKeyPrefix();
         String newSecret = generateSecret();
         String newPrefix = generatePrefix(apiKey.getEnvironment());
         apiKey.setKeyPrefix(newPrefix);
-        apiKey.setSecretHash(passwordEncoder.encode(newSecret));
+        apiKey.setSecretHash(secretHasher.hash(newSecret));
         apiKeyRepository.save(apiKey);
+        prefixFilter.add(newPrefix);
+        invalidateIssued(apiKey.getId(), oldPrefix, false);
         return new GeneratedKey(newPrefix, renderDisplaySecret(apiKey.getEnvironment(), newPrefix, newSecret), apiKey.getId());
     }
 
-    public List<ApiKey> listByOrganization(UUID orgId) {
-        return apiKeyRepository.findByOrganization_Id(orgId);
+    /**
+     * Creates all keys in one transaction using batched inserts; the result is in the order of {@code specs}.
+     */
+    @Transactional
+    public List<GeneratedKey> createKeys(UUID createdByUserId, List<KeySpec> specs) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        List<GeneratedKey> generated = new ArrayList<>(specs.size());
+        List<Object[]> keyRows = new ArrayList<>(specs.size());
+        List<Object[]> productRows = new ArrayList<>();
+        for (KeySpec spec : specs) {
+            Set<Product> products = productCatalog.resolveAll(spec.productCodes());
+            UUID id = UuidV7.next();
+            String secret = generateSecret();
+            String prefix = generatePrefix(spec.environment());
+            keyRows.add(new Object[]{id, spec.organizationId(), createdByUserId, prefix, secretHasher.hash(secret), spec.environment(), now});
+            for (Product p : products) productRows.add(new Object[]{id, p.getId()});
+            generated.add(new GeneratedKey(prefix, renderDisplaySecret(spec.environment(), prefix, secret), id));
+        }
+        jdbc.batchUpdate("""
+            INSERT INTO api_keys (id, organization_id, created_by_user_id, key_prefix, secret_hash, environment, status, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, 'active', ?)
+            """, keyRows);
+        jdbc.batchUpdate("INSERT INTO api_key_products (api_key_id, product_id) VALUES (?, ?)", productRows);
+        for (GeneratedKey key : generated) prefixFilter.add(key.prefix());
+        return generated;
+    }
+
+    /**
+     * Owning organization of each existing key among {@code ids}, loaded in one query.
+     */
+    public Map<UUID, UUID> organizationsOf(Collection<UUID> ids) {
+        Map<UUID, UUID> result = new HashMap<>();
+        for (KeyRow row : loadRows(ids)) result.put(row.id(), row.organizationId());
+        return result;
+    }
+
+    @Transactional
+    public void revokeAll(Collection<UUID> ids) {
+        List<KeyRow> rows = loadRows(ids);
+        if (rows.size() != ids.size()) throw new IllegalArgumentException("Unknown API key");
+        jdbc.batchUpdate("UPDATE api_keys SET status = 'revoked' WHERE id = ?", rows.stream().map(r -> new Object[]{r.id()}).toList());
+        for (KeyRow row : rows) invalidateIssued(row.id(), row.keyPrefix(), true);
+    }
+
+    @Transactional
+    public List<GeneratedKey> rotateAll(List<UUID> ids) {
+        Map<UUID, KeyRow> rows = new HashMap<>();
+        for (KeyRow row : loadRows(ids)) rows.put(row.id(), row);
+        if (rows.size() != ids.size()) throw new IllegalArgumentException("Unknown API key");
+        List<GeneratedKey> generated = new ArrayList<>(ids.size());
+        List<Object[]> updates = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            KeyRow row = rows.get(id);
+            String secret = generateSecret();
+            String prefix = generatePrefix(row.environment());
+            updates.add(new Object[]{prefix, secretHasher.hash(secret), id});
+            generated.add(new GeneratedKey(prefix, renderDisplaySecret(row.environment(), prefix, secret), id));
+        }
+        jdbc.batchUpdate("UPDATE api_keys SET key_prefix = ?, secret_hash = ? WHERE id = ?", updates);
+        for (GeneratedKey key : generated) prefixFilter.add(key.prefix());
+        for (KeyRow row : rows.values()) invalidateIssued(row.id(), row.keyPrefix(), false);
+        return generated;
+    }
+
+    public static String subject(UUID apiKeyId) {
+        return "apiKey:" + apiKeyId;
+    }
+
+    /**
+     * Drops cached verifications and tokens for {@code prefix} and revokes the access tokens already issued
+     * from it. A revoked key cannot mint new tokens, so everything issued up to now is revoked by subject;
+     * after a rotation the same subject keeps minting, so only earlier seconds are revoked by subject and
+     * the live cached token, which may share the current second, by {@code jti}.
+     */
+    private void invalidateIssued(UUID apiKeyId, String prefix, boolean keyRevoked) {
+        long now = System.currentTimeMillis() / 1000;
+        IssuedTokenCache.IssuedToken live = keyRevoked ? null : issuedTokenCache.peek(prefix);
+        verificationCache.evict(prefix);
+        issuedTokenCache.evict(prefix);
+        revocationPublisher.revokeSubject(subject(apiKeyId), keyRevoked ? now + 1 : now);
+        if (live != null && live.tokenId() != null) revocationPublisher.revokeTokenId(live.tokenId(), live.expiresAtEpochSecond());
+    }
+
+    private List<KeyRow> loadRows(Collection<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+        return jdbc.query("SELECT id, organization_id, key_prefix, environment FROM api_keys WHERE id = ANY(?)",
+            ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray())),
+            (rs, i) -> new KeyRow(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class), rs.getString(3), rs.getString(4)));
+    }
+
+    public KeysetQuery<KeySummary> listByOrganization(UUID orgId) {
+        return KeysetQuery.newestFirst("""
+            SELECT k.id, k.organization_id, k.key_prefix, k.environment, k.status, k.created_at, k.last_used_at,
+                   ARRAY(SELECT p.code FROM api_key_products ap JOIN products p ON p.id = ap.product_id
+                         WHERE ap.api_key_id = k.id ORDER BY p.code) AS products
+            FROM api_keys k
+            WHERE k.organization_id = ?""", "k.created_at", "k.id", (rs, i) -> {
+                OffsetDateTime lastUsedAt = rs.getObject("last_used_at", OffsetDateTime.class);
+                return new KeySummary(rs.getString("id"), rs.getString("organization_id"), rs.getString("key_prefix"),
+                    rs.getString("environment"), rs.getString("status"), List.of((String[]) rs.getArray("products").getArray()),
+                    rs.getObject("created_at", OffsetDateTime.class).toString(), lastUsedAt == null ? null : lastUsedAt.toString());
+            }, orgId);
     }
 
     public boolean verifyPresentedKey(String presented) {
         ParsedKey parsed = parsePresentedKey(presented);
+        if (verificationCache.get(parsed.prefix(), parsed.secret()) != null) return true;
+        if (!prefixFilter.mightContain(parsed.prefix())) return false;
         ApiKey apiKey = apiKeyRepository.findByKeyPrefix(parsed.prefix()).orElse(null);
         if (apiKey == null || !"active".equals(apiKey.getStatus())) return false;
-        return passwordEncoder.matches(parsed.secret(), apiKey.getSecretHash());
+        if (!secretHasher.matches(parsed.secret(), apiKey.getSecretHash())) return false;
+        upgradeHashIfNeeded(apiKey, parsed.secret());
+        return true;
+    }
+
+    private void upgradeHashIfNeeded(ApiKey apiKey, String secret) {
+        if (!secretHasher.needsUpgrade(apiKey.getSecretHash())) return;
+        apiKeyRepository.upgradeSecretHash(apiKey.getId(), apiKey.getSecretHash(), secretHasher.hash(secret));
     }
 
     private String generatePrefix(String environment) {
@@ -107,12 +246,24 @@ public class ApiKeyService {
         return new ParsedKey(presented.substring(0, i), presented.substring(i + 1));
     }
 
-    public ApiKey verifyAndLoad(String presented) {
+    public VerifiedKey verifyAndLoad(String presented) {
         ParsedKey parsed = parsePresentedKey(presented);
+        VerifiedKey cached = verificationCache.get(parsed.prefix(), parsed.secret());
+        if (cached != null) return cached;
+        if (!prefixFilter.mightContain(parsed.prefix())) throw new IllegalArgumentException("Unknown API key");
+        long stamp = verificationCache.stamp();
         ApiKey apiKey = apiKeyRepository.findByKeyPrefix(parsed.prefix()).orElseThrow(() -> new IllegalArgumentException("Unknown API key"));
         if (!"active".equals(apiKey.getStatus())) throw new IllegalStateException("API key not active");
-        if (!passwordEncoder.matches(parsed.secret(), apiKey.getSecretHash())) throw new IllegalArgumentException("Invalid API key secret");
-        return apiKey;
+        if (!secretHasher.matches(parsed.secret(), apiKey.getSecretHash())) throw new IllegalArgumentException("Invalid API key secret");
+        upgradeHashIfNeeded(apiKey, parsed.secret());
+        VerifiedKey verified = new VerifiedKey(
+            apiKey.getId(),
+            apiKey.getOrganization().getId(),
+            apiKey.getKeyPrefix(),
+            apiKey.getProducts().stream().map(p -> p.getCode().toLowerCase()).collect(Collectors.toUnmodifiableSet())
+        );
+        verificationCache.put(parsed.prefix(), parsed.secret(), verified, stamp);
+        return verified;
     }
 }
 
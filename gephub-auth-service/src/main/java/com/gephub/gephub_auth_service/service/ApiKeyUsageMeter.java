@@ -0,0 +1,117 @@
+package com.gephub.gephub_auth_service.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates API key usage in memory and writes it out in batches, so recording a use never adds a
+ * database write to the token exchange path. Counts go to {@code api_key_usage} per key, product and
+ * minute; the latest use per key goes to {@code api_keys.last_used_at}. Counts for keys deleted meanwhile are
+ * skipped, and a row that still fails {@code maxFlushAttempts} flushes in a row is dropped with a warning.
+ */
+@Component
+public class ApiKeyUsageMeter {
+    private static final Logger log = LoggerFactory.getLogger(ApiKeyUsageMeter.class);
+    private static final long MINUTE_MILLIS = 60_000L;
+
+    private final JdbcTemplate jdbc;
+    private final int maxFlushAttempts;
+    private final Map<UsageKey, LongAdder> counts = new ConcurrentHashMap<>();
+    private final Map<UsageKey, Integer> failedAttempts = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> lastUsed = new ConcurrentHashMap<>();
+
+    private record UsageKey(UUID apiKeyId, String productCode, long minute) {}
+
+    public ApiKeyUsageMeter(JdbcTemplate jdbc, @Value("${gephub.apikeys.usage.maxFlushAttempts:60}") int maxFlushAttempts) {
+        this.jdbc = jdbc;
+        this.maxFlushAttempts = maxFlushAttempts;
+    }
+
+    public void record(UUID apiKeyId, Collection<String> productCodes) {
+        long now = System.currentTimeMillis();
+        long minute = now - now % MINUTE_MILLIS;
+        for (String code : productCodes) {
+            counts.computeIfAbsent(new UsageKey(apiKeyId, code, minute), k -> new LongAdder()).increment();
+        }
+        lastUsed.merge(apiKeyId, now, Math::max);
+    }
+
+    @Scheduled(fixedDelayString = "${gephub.apikeys.usage.flushIntervalMs:5000}")
+    @PreDestroy
+    public synchronized void flush() {
+        long currentMinute = System.currentTimeMillis() / MINUTE_MILLIS * MINUTE_MILLIS;
+        List<Object[]> usageRows = new ArrayList<>();
+        List<UsageKey> drainedKeys = new ArrayList<>();
+        for (Map.Entry<UsageKey, LongAdder> e : counts.entrySet()) {
+            long n = e.getValue().sumThenReset();
+            if (n > 0) {
+                UsageKey k = e.getKey();
+                usageRows.add(new Object[]{k.apiKeyId(), k.productCode(), utc(k.minute()), n, k.apiKeyId()});
+                drainedKeys.add(k);
+            } else if (e.getKey().minute() < currentMinute - MINUTE_MILLIS) {
+                counts.remove(e.getKey(), e.getValue());
+            }
+        }
+        List<Object[]> lastUsedRows = new ArrayList<>();
+        for (Map.Entry<UUID, Long> e : lastUsed.entrySet()) {
+            if (lastUsed.remove(e.getKey(), e.getValue())) {
+                OffsetDateTime ts = utc(e.getValue());
+                lastUsedRows.add(new Object[]{ts, e.getKey(), ts});
+            }
+        }
+        if (!usageRows.isEmpty()) {
+            try {
+                jdbc.batchUpdate("""
+                    INSERT INTO api_key_usage (api_key_id, product_code, minute, request_count)
+                    SELECT ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM api_keys WHERE id = ?)
+                    ON CONFLICT (api_key_id, product_code, minute)
+                    DO UPDATE SET request_count = api_key_usage.request_count + EXCLUDED.request_count
+                    """, usageRows);
+                drainedKeys.forEach(failedAttempts::remove);
+            } catch (Exception e) {
+                log.warn("Failed to flush API key usage counts, will retry: {}", e.getMessage());
+                int dropped = 0;
+                for (int i = 0; i < drainedKeys.size(); i++) {
+                    UsageKey k = drainedKeys.get(i);
+                    if (failedAttempts.merge(k, 1, Integer::sum) >= maxFlushAttempts) {
+                        failedAttempts.remove(k);
+                        dropped++;
+                    } else {
+                        counts.computeIfAbsent(k, x -> new LongAdder()).add((Long) usageRows.get(i)[3]);
+                    }
+                }
+                if (dropped > 0) log.warn("Dropped {} API key usage rows after {} failed flushes", dropped, maxFlushAttempts);
+            }
+        }
+        if (!lastUsedRows.isEmpty()) {
+            try {
+                jdbc.batchUpdate("UPDATE api_keys SET last_used_at = ? WHERE id = ? AND (last_used_at IS NULL OR last_used_at < ?)", lastUsedRows);
+            } catch (Exception e) {
+                log.warn("Failed to flush API key last_used_at, will retry: {}", e.getMessage());
+                for (Object[] row : lastUsedRows) {
+                    lastUsed.merge((UUID) row[1], ((OffsetDateTime) row[0]).toInstant().toEpochMilli(), Math::max);
+                }
+            }
+        }
+    }
+
+    private static OffsetDateTime utc(long epochMillis) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,107 @@
+package com.gephub.gephub_auth_service.service;
+
+import com.gephub.common.cache.BoundedCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node-local cache of successfully verified API keys, keyed by prefix and a SHA-256 digest of the
+ * presented secret. Evictions are broadcast over Redis pub/sub so every node drops revoked or rotated
+ * keys as soon as the change commits.
+ */
+@Component
+public class ApiKeyVerificationCache implements MessageListener {
+    public static final String EVICT_CHANNEL = "gephub:apikeys:evict";
+
+    private static final Logger log = LoggerFactory.getLogger(ApiKeyVerificationCache.class);
+
+    private final StringRedisTemplate redis;
+    private final long ttlMillis;
+    private final BoundedCache<String, Entry> entries;
+    private final AtomicLong evictions = new AtomicLong();
+
+    private record Entry(byte[] secretDigest, ApiKeyService.VerifiedKey key) {}
+
+    public ApiKeyVerificationCache(StringRedisTemplate redis,
+                                   @Value("${gephub.apikeys.cache.ttlSeconds:300}") long ttlSeconds,
+                                   @Value("${gephub.apikeys.cache.maxEntries:10000}") int maxEntries) {
+        this.redis = redis;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new BoundedCache<>(maxEntries);
+    }
+
+    public ApiKeyService.VerifiedKey get(String prefix, String secret) {
+        Entry e = entries.get(prefix);
+        if (e == null) return null;
+        return MessageDigest.isEqual(e.secretDigest(), digest(secret)) ? e.key() : null;
+    }
+
+    /**
+     * Returns a stamp to pass to {@link #put}; a verification that raced with an eviction is not cached.
+     */
+    public long stamp() {
+        return evictions.get();
+    }
+
+    public void put(String prefix, String secret, ApiKeyService.VerifiedKey key, long stamp) {
+        if (ttlMillis <= 0) return;
+        entries.put(prefix, new Entry(digest(secret), key), System.currentTimeMillis() + ttlMillis);
+        if (evictions.get() != stamp) entries.remove(prefix);
+    }
+
+    /**
+     * Drops the prefix locally right away and, once the surrounding transaction commits, on every node.
+     */
+    public void evict(String prefix) {
+        evictLocal(prefix);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocal(prefix);
+                    publish(prefix);
+                }
+            });
+        } else {
+            publish(prefix);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        evictLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private void evictLocal(String prefix) {
+        evictions.incrementAndGet();
+        entries.remove(prefix);
+    }
+
+    private void publish(String prefix) {
+        try {
+            redis.convertAndSend(EVICT_CHANNEL, prefix);
+        } catch (Exception e) {
+            log.warn("Failed to broadcast API key eviction for {}: {}", prefix, e.getMessage());
+        }
+    }
+
+    private static byte[] digest(String secret) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
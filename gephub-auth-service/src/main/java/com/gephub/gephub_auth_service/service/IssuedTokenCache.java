@@ -0,0 +1,169 @@
+package com.gephub.gephub_auth_service.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.gephub.common.cache.BoundedCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Access tokens minted for API keys, kept in memory and in Redis so that repeat exchanges of the same key
+ * get the already-issued token back until it enters the refresh window before {@code exp}. Entries are
+ * keyed by key prefix and bound to a digest of the presented secret. Purged on revoke/rotate through
+ * {@link ApiKeyVerificationCache#EVICT_CHANNEL}.
+ */
+@Component
+public class IssuedTokenCache implements MessageListener {
+    private static final Logger log = LoggerFactory.getLogger(IssuedTokenCache.class);
+    private static final String KEY_PREFIX = "gephub:apikeys:token:";
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper json = new ObjectMapper();
+    private final boolean enabled;
+    private final long refreshWindowSeconds;
+    private final BoundedCache<String, IssuedToken> local;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public record IssuedToken(String secretDigest, String token, String tokenId, long expiresAtEpochSecond, UUID apiKeyId, String organizationId,
+                              List<String> scopes, Set<String> productCodes) {
+        @JsonIgnore
+        public long expiresIn() {
+            return Math.max(0, expiresAtEpochSecond - System.currentTimeMillis() / 1000);
+        }
+    }
+
+    public IssuedTokenCache(StringRedisTemplate redis,
+                            @Value("${gephub.apikeys.tokenReuse.enabled:true}") boolean enabled,
+                            @Value("${gephub.apikeys.tokenReuse.refreshWindowSeconds:120}") long refreshWindowSeconds,
+                            @Value("${gephub.apikeys.tokenReuse.maxEntries:10000}") int maxEntries) {
+        this.redis = redis;
+        this.enabled = enabled;
+        this.refreshWindowSeconds = refreshWindowSeconds;
+        this.local = new BoundedCache<>(maxEntries);
+    }
+
+    public IssuedToken get(String prefix, String secret) {
+        if (!enabled) return null;
+        String digest = digest(secret);
+        IssuedToken t = local.get(prefix);
+        if (t == null) {
+            t = readRedis(prefix);
+            if (t != null && fresh(t)) putLocal(prefix, t);
+        }
+        if (t == null) return null;
+        if (!fresh(t)) {
+            local.remove(prefix);
+            return null;
+        }
+        boolean same = MessageDigest.isEqual(t.secretDigest().getBytes(StandardCharsets.US_ASCII), digest.getBytes(StandardCharsets.US_ASCII));
+        return same ? t : null;
+    }
+
+    public long stamp() {
+        return evictions.get();
+    }
+
+    /**
+     * Returns the cached token for a prefix regardless of the presented secret, or null.
+     */
+    public IssuedToken peek(String prefix) {
+        if (!enabled) return null;
+        IssuedToken t = local.get(prefix);
+        return t != null ? t : readRedis(prefix);
+    }
+
+    public void put(String prefix, String secret, Jwt token, ApiKeyService.VerifiedKey key, List<String> scopes, long stamp) {
+        if (!enabled) return;
+        long expiresAtEpochSecond = token.getExpiresAt().getEpochSecond();
+        IssuedToken t = new IssuedToken(digest(secret), token.getTokenValue(), token.getId(), expiresAtEpochSecond, key.id(),
+            key.organizationId().toString(), List.copyOf(scopes), key.productCodes());
+        long ttl = expiresAtEpochSecond - System.currentTimeMillis() / 1000 - refreshWindowSeconds;
+        if (ttl <= 0) return;
+        putLocal(prefix, t);
+        try {
+            redis.opsForValue().set(KEY_PREFIX + prefix, json.writeValueAsString(t), Duration.ofSeconds(ttl));
+        } catch (Exception e) {
+            log.warn("Failed to store issued token for {}: {}", prefix, e.getMessage());
+        }
+        if (evictions.get() != stamp) purge(prefix);
+    }
+
+    /**
+     * Purges the cached token for a prefix; deferred until commit when called inside a transaction.
+     */
+    public void evict(String prefix) {
+        purge(prefix);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    purge(prefix);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        evictions.incrementAndGet();
+        local.remove(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private void purge(String prefix) {
+        evictions.incrementAndGet();
+        local.remove(prefix);
+        try {
+            redis.delete(KEY_PREFIX + prefix);
+        } catch (Exception e) {
+            log.warn("Failed to purge issued token for {}: {}", prefix, e.getMessage());
+        }
+    }
+
+    private boolean fresh(IssuedToken t) {
+        return t.expiresAtEpochSecond() - refreshWindowSeconds > System.currentTimeMillis() / 1000;
+    }
+
+    /**
+     * Kept locally until the token's {@code exp} rather than the refresh window, so {@link #peek} still sees it.
+     */
+    private void putLocal(String prefix, IssuedToken t) {
+        local.put(prefix, t, t.expiresAtEpochSecond() * 1000);
+    }
+
+    private IssuedToken readRedis(String prefix) {
+        try {
+            String v = redis.opsForValue().get(KEY_PREFIX + prefix);
+            return v == null ? null : json.readValue(v, IssuedToken.class);
+        } catch (Exception e) {
+            log.warn("Failed to read issued token for {}: {}", prefix, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String digest(String secret) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(d);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package com.gephub.gephub_auth_service.service;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.impl.ECDSA;
+import com.nimbusds.jose.crypto.impl.RSASSA;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.RSAKey;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Signs access tokens without building a {@code JwtClaimsSet} and a Nimbus {@code SignedJWT} per call.
+ * The header segment is encoded once per key, claims are written as JSON straight into a per-thread
+ * buffer, and each thread keeps an initialised {@link Signature} per key.
+ * <p>
+ * Output is byte-identical to {@code NimbusJwtEncoder}: claims are written in the iteration order that
+ * the encoder's map conversions produce for the same key sequence (computed once per claim layout), and
+ * values are escaped like Nimbus' JSON serializer. {@code JwtMinterTest} holds this against the encoder
+ * on the classpath, so a dependency upgrade that changes either fails the build. Claim values other than
+ * strings, booleans, integers, collections and string-keyed maps are not handled here; {@link #mint} then
+ * returns null and the caller falls back to the encoder.
+ */
+final class JwtMinter {
+    private static final Set<String> REGISTERED = Set.of("iss", "sub", "aud", "exp", "nbf", "iat", "jti");
+    private static final byte[] BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int MAX_LAYOUTS = 256;
+
+    private final String issuer;
+    private final Map<String, KeySigner> signers = new ConcurrentHashMap<>();
+    private final Map<List<String>, String[]> layouts = new ConcurrentHashMap<>();
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    private static final class KeySigner {
+        final byte[] headerSegment;
+        final ThreadLocal<Signature> signature;
+        final int ecSignatureLength;
+
+        KeySigner(JWK jwk, JWSAlgorithm alg) throws JOSEException {
+            this.headerSegment = new JWSHeader.Builder(alg).keyID(jwk.getKeyID()).build().toBase64URL().toString()
+                .getBytes(StandardCharsets.US_ASCII);
+            PrivateKey privateKey = jwk instanceof RSAKey rsa ? rsa.toPrivateKey() : ((ECKey) jwk).toPrivateKey();
+            boolean ec = jwk instanceof ECKey;
+            this.ecSignatureLength = ec ? ECDSA.getSignatureByteArrayLength(alg) : 0;
+            this.signature = ThreadLocal.withInitial(() -> {
+                try {
+                    Signature s = ec ? ECDSA.getSignerAndVerifier(alg, null) : RSASSA.getSignerAndVerifier(alg, null);
+                    s.initSign(privateKey);
+                    return s;
+                } catch (JOSEException | GeneralSecurityException e) {
+                    throw new IllegalStateException("Failed to initialize signer for " + jwk.getKeyID(), e);
+                }
+            });
+        }
+
+        byte[] sign(byte[] input, int length) throws GeneralSecurityException, JOSEException {
+            Signature s = signature.get();
+            s.update(input, 0, length);
+            byte[] sig = s.sign();
+            return ecSignatureLength > 0 ? ECDSA.transcodeSignatureToConcat(sig, ecSignatureLength) : sig;
+        }
+    }
+
+    private static final class Buffers {
+        final ByteBuf json = new ByteBuf(512);
+        final ByteBuf token = new ByteBuf(1024);
+        final List<String> keys = new ArrayList<>();
+    }
+
+    private static final class ByteBuf {
+        byte[] bytes;
+        int length;
+
+        ByteBuf(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void ensure(int extra) {
+            if (length + extra > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+
+        void put(byte b) {
+            ensure(1);
+            bytes[length++] = b;
+        }
+
+        void put(byte[] b) {
+            ensure(b.length);
+            System.arraycopy(b, 0, bytes, length, b.length);
+            length += b.length;
+        }
+
+        void ascii(String s) {
+            ensure(s.length());
+            for (int i = 0; i < s.length(); i++) bytes[length++] = (byte) s.charAt(i);
+        }
+    }
+
+    JwtMinter(String issuer) {
+        this.issuer = issuer;
+    }
+
+    /**
+     * Drops cached per-key state; call when the key ring changes.
+     */
+    void reset() {
+        signers.clear();
+    }
+
+    /**
+     * Returns the compact serialization, or null when the claims cannot be written by this minter.
+     */
+    String mint(JWK jwk, JWSAlgorithm alg, String subject, String jti, long issuedAt, long expiresAt, Map<String, Object> claims) {
+        Buffers buf = buffers.get();
+        List<String> keys = buf.keys;
+        keys.clear();
+        if (claims != null) {
+            for (Map.Entry<String, Object> e : claims.entrySet()) {
+                if (REGISTERED.contains(e.getKey()) || !writable(e.getValue())) return null;
+                keys.add(e.getKey());
+            }
+        }
+        String[] layout = layouts.get(keys);
+        if (layout == null) {
+            layout = layout(keys);
+            if (layouts.size() < MAX_LAYOUTS) layouts.put(List.copyOf(keys), layout);
+        }
+        try {
+            KeySigner signer = signers.get(jwk.getKeyID());
+            if (signer == null) signer = signers.computeIfAbsent(jwk.getKeyID(), kid -> newSigner(jwk, alg));
+
+            ByteBuf json = buf.json;
+            json.length = 0;
+            json.put((byte) '{');
+            for (int i = 0; i < layout.length; i++) {
+                if (i > 0) json.put((byte) ',');
+                String name = layout[i];
+                writeString(json, name);
+                json.put((byte) ':');
+                switch (name) {
+                    case "iss" -> writeString(json, issuer);
+                    case "sub" -> writeString(json, subject);
+                    case "exp" -> json.ascii(Long.toString(expiresAt));
+                    case "iat" -> json.ascii(Long.toString(issuedAt));
+                    case "jti" -> writeString(json, jti);
+                    default -> writeValue(json, claims.get(name));
+                }
+            }
+            json.put((byte) '}');
+
+            ByteBuf token = buf.token;
+            token.length = 0;
+            token.put(signer.headerSegment);
+            token.put((byte) '.');
+            base64Url(token, json.bytes, json.length);
+            byte[] signature = signer.sign(token.bytes, token.length);
+            token.put((byte) '.');
+            base64Url(token, signature, signature.length);
+            return new String(token.bytes, 0, token.length, StandardCharsets.US_ASCII);
+        } catch (GeneralSecurityException | JOSEException e) {
+            throw new IllegalStateException("Failed to sign JWT", e);
+        }
+    }
+
+    private static KeySigner newSigner(JWK jwk, JWSAlgorithm alg) {
+        try {
+            return new KeySigner(jwk, alg);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Unsupported signing key " + jwk.getKeyID(), e);
+        }
+    }
+
+    /**
+     * Replays the map conversions of JwtService → JwtClaimsSet → NimbusJwtEncoder → JWTClaimsSet → Payload to
+     * find the order in which the claim names are serialized.
+     */
+    private static String[] layout(List<String> customKeys) {
+        Map<String, Object> spring = new HashMap<>();
+        for (String k : List.of("iss", "iat", "exp", "sub", "jti")) spring.put(k, Boolean.TRUE);
+        for (String k : customKeys) spring.put(k, Boolean.TRUE);
+        Map<String, Object> springCopy = new HashMap<>(spring);
+        Map<String, Object> custom = new HashMap<>();
+        for (String k : springCopy.keySet()) {
+            if (!REGISTERED.contains(k)) custom.put(k, Boolean.TRUE);
+        }
+        Map<String, Object> nimbus = new LinkedHashMap<>();
+        for (String k : List.of("iss", "sub", "exp", "iat", "jti")) nimbus.put(k, Boolean.TRUE);
+        nimbus.putAll(custom);
+        Map<String, Object> json = new HashMap<>();
+        for (String k : nimbus.keySet()) json.put(k, Boolean.TRUE);
+        Map<String, Object> payload = new HashMap<>();
+        payload.putAll(json);
+        return payload.keySet().toArray(new String[0]);
+    }
+
+    private static boolean writable(Object value) {
+        if (value instanceof String || value instanceof Boolean || value instanceof Integer || value instanceof Long) return true;
+        if (value instanceof Collection<?> c) {
+            for (Object o : c) if (!writable(o)) return false;
+            return true;
+        }
+        if (value instanceof Map<?, ?> m) {
+            for (Map.Entry<?, ?> e : m.entrySet()) if (!(e.getKey() instanceof String) || !writable(e.getValue())) return false;
+            return true;
+        }
+        return false;
+    }
+
+    private static void writeValue(ByteBuf out, Object value) {
+        if (value instanceof String s) {
+            writeString(out, s);
+        } else if (value instanceof Collection<?> c) {
+            out.put((byte) '[');
+            boolean first = true;
+            for (Object o : c) {
+                if (!first) out.put((byte) ',');
+                first = false;
+                writeValue(out, o);
+            }
+            out.put((byte) ']');
+        } else if (value instanceof Map<?, ?> m) {
+            out.put((byte) '{');
+            boolean first = true;
+            for (Map.Entry<?, ?> e : m.entrySet()) {
+                if (!first) out.put((byte) ',');
+                first = false;
+                writeString(out, (String) e.getKey());
+                out.put((byte) ':');
+                writeValue(out, e.getValue());
+            }
+            out.put((byte) '}');
+        } else {
+            out.ascii(String.valueOf(value));
+        }
+    }
+
+    private static void writeString(ByteBuf out, String s) {
+        out.ensure(s.length() + 2);
+        out.bytes[out.length++] = '"';
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> out.ascii("\\\"");
+                case '\\' -> out.ascii("\\\\");
+                case '\t' -> out.ascii("\\t");
+                case '\b' -> out.ascii("\\b");
+                case '\n' -> out.ascii("\\n");
+                case '\r' -> out.ascii("\\r");
+                case '\f' -> out.ascii("\\f");
+                case '\u2028' -> out.ascii("\\u2028");
+                case '\u2029' -> out.ascii("\\u2029");
+                default -> {
+                    if (c < 0x20) {
+                        out.ascii("\\u00");
+                        out.put((byte) HEX[c >> 4]);
+                        out.put((byte) HEX[c & 0xF]);
+                    } else if (c < 0x80) {
+                        out.put((byte) c);
+                    } else {
+                        writeUtf8(out, s, i);
+                        if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) i++;
+                    }
+                }
+            }
+        }
+        out.put((byte) '"');
+    }
+
+    private static void writeUtf8(ByteBuf out, String s, int i) {
+        char c = s.charAt(i);
+        out.ensure(4);
+        if (c < 0x800) {
+            out.bytes[out.length++] = (byte) (0xC0 | (c >> 6));
+            out.bytes[out.length++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, s.charAt(i + 1));
+            out.bytes[out.length++] = (byte) (0xF0 | (cp >> 18));
+            out.bytes[out.length++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            out.bytes[out.length++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            out.bytes[out.length++] = (byte) (0x80 | (cp & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            out.bytes[out.length++] = '?';
+        } else {
+            out.bytes[out.length++] = (byte) (0xE0 | (c >> 12));
+            out.bytes[out.length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            out.bytes[out.length++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private static void base64Url(ByteBuf out, byte[] src, int length) {
+        out.ensure((length + 2) / 3 * 4);
+        byte[] dst = out.bytes;
+        int d = out.length;
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int v = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[d++] = BASE64URL[v >>> 18];
+            dst[d++] = BASE64URL[(v >>> 12) & 0x3F];
+            dst[d++] = BASE64URL[(v >>> 6) & 0x3F];
+            dst[d++] = BASE64URL[v & 0x3F];
+        }
+        int rest = length - i;
+        if (rest == 1) {
+            int v = (src[i] & 0xFF) << 16;
+            dst[d++] = BASE64URL[v >>> 18];
+            dst[d++] = BASE64URL[(v >>> 12) & 0x3F];
+        } else if (rest == 2) {
+            int v = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8;
+            dst[d++] = BASE64URL[v >>> 18];
+            dst[d++] = BASE64URL[(v >>> 12) & 0x3F];
+            dst[d++] = BASE64URL[(v >>> 6) & 0x3F];
+        }
+        out.length = d;
+    }
+}
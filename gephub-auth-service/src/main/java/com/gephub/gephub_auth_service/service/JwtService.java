@@ -1,37 +1,97 @@
 package com.gephub.gephub_auth_service.service;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.RSAKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
     private final JwtEncoder encoder;
+    private final JwtKeyRing keyRing;
+    private final String issuer;
+    private final JwtMinter minter;
+    private final Map<JwtKeyRing.Algorithm, Timer> mintTimers = new EnumMap<>(JwtKeyRing.Algorithm.class);
+    private final Map<JwtKeyRing.Algorithm, Timer> encodeTimers = new EnumMap<>(JwtKeyRing.Algorithm.class);
 
-    @Value("${gephub.jwt.issuer:https://auth.gephub.local}")
-    private String issuer;
-
-    public JwtService(JwtEncoder encoder) {
+    public JwtService(JwtEncoder encoder, JwtKeyRing keyRing, @Value("${gephub.jwt.issuer:https://auth.gephub.local}") String issuer,
+                      MeterRegistry meterRegistry) {
         this.encoder = encoder;
+        this.keyRing = keyRing;
+        this.issuer = issuer;
+        this.minter = new JwtMinter(issuer);
+        keyRing.onChange(ring -> minter.reset());
+        for (JwtKeyRing.Algorithm algorithm : JwtKeyRing.Algorithm.values()) {
+            mintTimers.put(algorithm, signTimer(meterRegistry, algorithm, "minter"));
+            encodeTimers.put(algorithm, signTimer(meterRegistry, algorithm, "encoder"));
+        }
     }
 
     public String issueToken(String subject, Map<String, Object> claims, long ttlSeconds) {
+        return issue(subject, claims, ttlSeconds).getTokenValue();
+    }
+
+    public String issueToken(String subject, Map<String, Object> claims, long ttlSeconds, JwtKeyRing.Algorithm algorithm) {
+        return issue(subject, claims, ttlSeconds, algorithm).getTokenValue();
+    }
+
+    public Jwt issue(String subject, Map<String, Object> claims, long ttlSeconds) {
+        return issue(subject, claims, ttlSeconds, keyRing.defaultAlgorithm());
+    }
+
+    public Jwt issue(String subject, Map<String, Object> claims, long ttlSeconds, JwtKeyRing.Algorithm algorithm) {
         Instant now = Instant.now();
+        String jti = UUID.randomUUID().toString();
+        JWK key = keyRing.signingKey(algorithm);
+        long started = System.nanoTime();
+        if (subject != null && (key instanceof RSAKey || key instanceof ECKey)) {
+            String token = minter.mint(key, JWSAlgorithm.parse(algorithm.name()), subject, jti,
+                    now.getEpochSecond(), now.getEpochSecond() + ttlSeconds, claims);
+            if (token != null) {
+                mintTimers.get(algorithm).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                Map<String, Object> jwtClaims = claims == null ? new HashMap<>() : new HashMap<>(claims);
+                jwtClaims.put("iss", issuer);
+                jwtClaims.put("iat", now);
+                jwtClaims.put("exp", now.plusSeconds(ttlSeconds));
+                jwtClaims.put("sub", subject);
+                jwtClaims.put("jti", jti);
+                return new Jwt(token, now, now.plusSeconds(ttlSeconds),
+                        Map.of("alg", SignatureAlgorithm.from(algorithm.name()), "kid", key.getKeyID()), jwtClaims);
+            }
+        }
         JwtClaimsSet.Builder builder = JwtClaimsSet.builder()
                 .issuer(issuer)
                 .issuedAt(now)
                 .expiresAt(now.plusSeconds(ttlSeconds))
-                .subject(subject);
+                .subject(subject)
+                .id(jti);
         if (claims != null) {
             claims.forEach(builder::claim);
         }
-        return encoder.encode(JwtEncoderParameters.from(builder.build())).getTokenValue();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.from(algorithm.name())).keyId(key.getKeyID()).build();
+        Jwt jwt = encoder.encode(JwtEncoderParameters.from(header, builder.build()));
+        encodeTimers.get(algorithm).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return jwt;
     }
-}
-
 
+    private static Timer signTimer(MeterRegistry registry, JwtKeyRing.Algorithm algorithm, String path) {
+        return Timer.builder("gephub.jwt.sign").tags("alg", algorithm.name(), "path", path).register(registry);
+    }
+}
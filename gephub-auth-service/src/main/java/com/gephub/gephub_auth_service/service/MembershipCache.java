@@ -0,0 +1,119 @@
+package com.gephub.gephub_auth_service.service;
+
+import com.gephub.common.cache.BoundedCache;
+import com.gephub.gephub_auth_service.domain.OrganizationRole;
+import com.gephub.gephub_auth_service.repository.MembershipRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived, node-local cache of a user's memberships as immutable projections. Filled by login and by
+ * role checks; invalidated on every node over Redis pub/sub once a membership change commits.
+ */
+@Component
+public class MembershipCache implements MessageListener {
+    public static final String EVICT_CHANNEL = "gephub:memberships:evict";
+
+    private static final Logger log = LoggerFactory.getLogger(MembershipCache.class);
+
+    private final MembershipRepository membershipRepository;
+    private final StringRedisTemplate redis;
+    private final long ttlMillis;
+    private final BoundedCache<UUID, List<MembershipView>> entries;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public record MembershipView(UUID organizationId, OrganizationRole role) {}
+
+    public MembershipCache(MembershipRepository membershipRepository, StringRedisTemplate redis,
+                           @Value("${gephub.memberships.cache.ttlSeconds:30}") long ttlSeconds,
+                           @Value("${gephub.memberships.cache.maxEntries:10000}") int maxEntries) {
+        this.membershipRepository = membershipRepository;
+        this.redis = redis;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new BoundedCache<>(maxEntries);
+    }
+
+    public List<MembershipView> forUser(UUID userId) {
+        List<MembershipView> cached = entries.get(userId);
+        if (cached != null) return cached;
+        long stamp = stamp();
+        List<MembershipView> loaded = membershipRepository.findByUser(userId).stream()
+            .map(m -> new MembershipView(m.getId().getOrganizationId(), m.getRole()))
+            .toList();
+        put(userId, loaded, stamp);
+        return loaded;
+    }
+
+    public Optional<OrganizationRole> role(UUID userId, UUID organizationId) {
+        for (MembershipView m : forUser(userId)) {
+            if (m.organizationId().equals(organizationId)) return Optional.of(m.role());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns a stamp to pass to {@link #put}; memberships read before a concurrent eviction are not cached.
+     */
+    public long stamp() {
+        return evictions.get();
+    }
+
+    public void put(UUID userId, List<MembershipView> memberships, long stamp) {
+        if (ttlMillis <= 0) return;
+        entries.put(userId, List.copyOf(memberships), System.currentTimeMillis() + ttlMillis);
+        if (evictions.get() != stamp) entries.remove(userId);
+    }
+
+    /**
+     * Drops the user locally right away and, once the surrounding transaction commits, on every node.
+     */
+    public void evict(UUID userId) {
+        evictLocal(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictLocal(userId);
+                    publish(userId);
+                }
+            });
+        } else {
+            publish(userId);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            evictLocal(UUID.fromString(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed membership eviction: {}", e.getMessage());
+        }
+    }
+
+    private void evictLocal(UUID userId) {
+        evictions.incrementAndGet();
+        entries.remove(userId);
+    }
+
+    private void publish(UUID userId) {
+        try {
+            redis.convertAndSend(EVICT_CHANNEL, userId.toString());
+        } catch (Exception e) {
+            log.warn("Failed to broadcast membership eviction for {}: {}", userId, e.getMessage());
+        }
+    }
+}
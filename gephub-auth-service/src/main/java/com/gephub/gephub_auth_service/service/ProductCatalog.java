@@ -0,0 +1,58 @@
+package com.gephub.gephub_auth_service.service;
+
+import com.gephub.gephub_auth_service.domain.Product;
+import com.gephub.gephub_auth_service.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory snapshot of the {@code products} table, loaded at startup and refreshed periodically, so
+ * product codes resolve to entities without a query. Products only change through migrations or admin
+ * tooling; call {@link #refresh()} to pick up a change before the next scheduled reload.
+ */
+@Component
+public class ProductCatalog {
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalog.class);
+
+    private final ProductRepository productRepository;
+    private volatile Map<String, Product> byCode;
+
+    public ProductCatalog(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+        this.byCode = load();
+    }
+
+    public Product resolve(String code) {
+        Product product = byCode.get(code);
+        if (product == null) throw new IllegalArgumentException("Unknown product: " + code);
+        return product;
+    }
+
+    public Set<Product> resolveAll(Collection<String> codes) {
+        Set<Product> products = new LinkedHashSet<>();
+        for (String code : codes) products.add(resolve(code));
+        return products;
+    }
+
+    @Scheduled(fixedDelayString = "${gephub.products.refreshIntervalMs:300000}", initialDelayString = "${gephub.products.refreshIntervalMs:300000}")
+    public void refresh() {
+        try {
+            byCode = load();
+        } catch (Exception e) {
+            log.warn("Failed to refresh product catalog, keeping {} cached products: {}", byCode.size(), e.getMessage());
+        }
+    }
+
+    private Map<String, Product> load() {
+        return productRepository.findAll().stream().collect(Collectors.toUnmodifiableMap(Product::getCode, Function.identity()));
+    }
+}
@@ -0,0 +1,162 @@
+package com.gephub.gephub_auth_service.service;
+
+import com.gephub.common.cache.BoundedCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Distributed token buckets backed by an atomic Redis script. Nodes take tokens from Redis in leases of
+ * {@code leaseShare} of the capacity and spend them locally, so only one request per lease runs the script;
+ * a lease not used up within {@code leaseMs} is dropped. Leased tokens are already gone from Redis, so the
+ * cluster never admits more than the limit, at the cost of rejecting early while other nodes hold unused
+ * leases. The deny window Redis reports is remembered, so throttled clients are rejected without a round
+ * trip. Redis failures fail open to a local bucket with the same limit. At most {@code maxLocalEntries}
+ * buckets are kept, oldest first out; an evicted bucket only loses its lease and deny window.
+ */
+@Component
+public class RateLimiter {
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+    private static final String KEY_PREFIX = "gephub:ratelimit:";
+    private static final long NEEDS_LEASE = -1;
+
+    private static final RedisScript<List> TOKEN_BUCKET = new DefaultRedisScript<>("""
+        local capacity = tonumber(ARGV[1])
+        local period = tonumber(ARGV[2])
+        local want = tonumber(ARGV[3])
+        local t = redis.call('TIME')
+        local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000)
+        local b = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+        local tokens = tonumber(b[1]) or capacity
+        local ts = tonumber(b[2]) or now
+        local rate = capacity / period
+        tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+        local granted = 0
+        local retry = 0
+        if tokens >= 1 then
+            granted = math.min(want, math.floor(tokens))
+            tokens = tokens - granted
+        else
+            retry = math.ceil((1 - tokens) / rate)
+        end
+        redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+        redis.call('PEXPIRE', KEYS[1], period)
+        return {granted, retry}
+        """, List.class);
+
+    private final StringRedisTemplate redis;
+    private final double leaseShare;
+    private final long leaseMillis;
+    private final BoundedCache<String, LocalBucket> local;
+
+    /**
+     * A bucket of {@code capacity} requests that refills completely over {@code periodMillis}.
+     */
+    public record Limit(int capacity, long periodMillis) {
+        /**
+         * Parses {@code "<capacity>/<seconds>"}, e.g. {@code "10/60"}.
+         */
+        public static Limit parse(String spec) {
+            int i = spec.indexOf('/');
+            if (i <= 0) throw new IllegalArgumentException("Invalid rate limit: " + spec);
+            Limit limit = new Limit(Integer.parseInt(spec.substring(0, i).trim()), Long.parseLong(spec.substring(i + 1).trim()) * 1000);
+            if (limit.capacity() <= 0 || limit.periodMillis() <= 0) throw new IllegalArgumentException("Invalid rate limit: " + spec);
+            return limit;
+        }
+    }
+
+    private static final class LocalBucket {
+        private final Limit limit;
+        private long leased;
+        private long leaseExpiresAt;
+        private long blockedUntil;
+        private double tokens;
+        private long updatedAt;
+
+        private LocalBucket(Limit limit, long now) {
+            this.limit = limit;
+            this.tokens = limit.capacity();
+            this.updatedAt = now;
+        }
+
+        /**
+         * Takes one leased token: 0 when there was one, {@link #NEEDS_LEASE} when Redis has to be asked, otherwise the wait.
+         */
+        long tryTakeLeased(long now) {
+            if (now < blockedUntil) return blockedUntil - now;
+            if (leased == 0 || now >= leaseExpiresAt) return NEEDS_LEASE;
+            leased--;
+            return 0;
+        }
+
+        void lease(long tokens, long expiresAt) {
+            leased = tokens;
+            leaseExpiresAt = expiresAt;
+        }
+
+        /**
+         * Takes one token from the node's own bucket, used while Redis is unavailable.
+         */
+        long tryTakeLocal(long now) {
+            double rate = (double) limit.capacity() / limit.periodMillis();
+            tokens = Math.min(limit.capacity(), tokens + (now - updatedAt) * rate);
+            updatedAt = now;
+            if (tokens < 1) return (long) Math.ceil((1 - tokens) / rate);
+            tokens -= 1;
+            return 0;
+        }
+
+        void block(long until) {
+            leased = 0;
+            blockedUntil = Math.max(blockedUntil, until);
+        }
+    }
+
+    public RateLimiter(StringRedisTemplate redis, @Value("${gephub.ratelimit.maxLocalEntries:100000}") int maxLocalEntries,
+                       @Value("${gephub.ratelimit.leaseShare:0.05}") double leaseShare,
+                       @Value("${gephub.ratelimit.leaseMs:1000}") long leaseMillis) {
+        this.redis = redis;
+        this.local = new BoundedCache<>(maxLocalEntries);
+        this.leaseShare = leaseShare;
+        this.leaseMillis = leaseMillis;
+    }
+
+    /**
+     * Takes one token from the bucket {@code name:key}; returns 0 when allowed, otherwise the milliseconds
+     * to wait before retrying.
+     */
+    public long tryAcquire(String name, String key, Limit limit) {
+        String bucketKey = name + ":" + key;
+        long now = System.currentTimeMillis();
+        LocalBucket bucket = local.computeIfAbsent(bucketKey, k -> new LocalBucket(limit, now), BoundedCache.NO_EXPIRY);
+        // Requests for the same bucket wait for its lease instead of each asking Redis for one.
+        synchronized (bucket) {
+            long wait = bucket.tryTakeLeased(now);
+            if (wait != NEEDS_LEASE) return wait;
+            try {
+                long size = Math.max(1, (long) (limit.capacity() * leaseShare));
+                List<?> result = redis.execute(TOKEN_BUCKET, List.of(KEY_PREFIX + bucketKey),
+                    String.valueOf(limit.capacity()), String.valueOf(limit.periodMillis()), String.valueOf(size));
+                if (result != null && result.size() == 2) {
+                    long granted = ((Number) result.get(0)).longValue();
+                    if (granted > 0) {
+                        bucket.lease(granted - 1, now + leaseMillis);
+                        return 0;
+                    }
+                    long retry = Math.max(1, ((Number) result.get(1)).longValue());
+                    bucket.block(now + retry);
+                    return retry;
+                }
+            } catch (Exception e) {
+                log.warn("Rate limiter unavailable, using local bucket for {}: {}", name, e.getMessage());
+            }
+            return bucket.tryTakeLocal(now);
+        }
+    }
+}
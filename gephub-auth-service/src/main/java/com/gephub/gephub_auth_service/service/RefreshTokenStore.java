@@ -0,0 +1,128 @@
+package com.gephub.gephub_auth_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Opaque refresh tokens kept in Redis under a SHA-256 digest of the token. Every use consumes the token
+ * and returns a successor in the same family with a fresh idle TTL, capped by the family's absolute
+ * lifetime. Presenting an already-consumed token revokes the whole family.
+ */
+@Component
+public class RefreshTokenStore {
+    private static final String TOKEN_KEY = "gephub:refresh:token:";
+    private static final String USED_KEY = "gephub:refresh:used:";
+    private static final String FAMILY_KEY = "gephub:refresh:family:";
+
+    private final StringRedisTemplate redis;
+    private final ObjectMapper json = new ObjectMapper();
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final long idleTtlSeconds;
+    private final long maxLifetimeSeconds;
+
+    public record Session(String familyId, String subject, Map<String, Object> claims, long createdAtEpochSecond) {}
+
+    public record Issued(String token, long expiresIn) {}
+
+    public record Refreshed(Session session, Issued next) {}
+
+    public RefreshTokenStore(StringRedisTemplate redis,
+                             @Value("${gephub.refreshTokens.idleTtlSeconds:604800}") long idleTtlSeconds,
+                             @Value("${gephub.refreshTokens.maxLifetimeSeconds:2592000}") long maxLifetimeSeconds) {
+        this.redis = redis;
+        this.idleTtlSeconds = idleTtlSeconds;
+        this.maxLifetimeSeconds = maxLifetimeSeconds;
+    }
+
+    public Issued issue(String subject, Map<String, Object> claims) {
+        return store(new Session(UUID.randomUUID().toString(), subject, Map.copyOf(claims), System.currentTimeMillis() / 1000));
+    }
+
+    /**
+     * Consumes {@code token} and returns its session with the successor token, or empty when the token is
+     * unknown, expired or was already used. {@code reclaim} rebuilds the session's claims from the subject's
+     * current state; returning {@code null} ends the session and revokes its family.
+     */
+    public Optional<Refreshed> refresh(String token, Function<Session, Map<String, Object>> reclaim) {
+        String digest = digest(token);
+        String value = redis.opsForValue().getAndDelete(TOKEN_KEY + digest);
+        if (value == null) {
+            String family = redis.opsForValue().get(USED_KEY + digest);
+            if (family != null) revokeFamily(family);
+            return Optional.empty();
+        }
+        Session session = read(value);
+        if (remainingLifetime(session) <= 0) {
+            redis.delete(FAMILY_KEY + session.familyId());
+            return Optional.empty();
+        }
+        redis.opsForValue().set(USED_KEY + digest, session.familyId(), Duration.ofSeconds(idleTtlSeconds));
+        Map<String, Object> claims = reclaim.apply(session);
+        if (claims == null) {
+            revokeFamily(session.familyId());
+            return Optional.empty();
+        }
+        Session next = new Session(session.familyId(), session.subject(), Map.copyOf(claims), session.createdAtEpochSecond());
+        return Optional.of(new Refreshed(next, store(next)));
+    }
+
+    public void revoke(String token) {
+        String value = redis.opsForValue().getAndDelete(TOKEN_KEY + digest(token));
+        if (value != null) redis.delete(FAMILY_KEY + read(value).familyId());
+    }
+
+    private void revokeFamily(String familyId) {
+        String current = redis.opsForValue().getAndDelete(FAMILY_KEY + familyId);
+        if (current != null) redis.delete(TOKEN_KEY + current);
+    }
+
+    private Issued store(Session session) {
+        byte[] rnd = new byte[32];
+        secureRandom.nextBytes(rnd);
+        String token = "grt_" + Base64.getUrlEncoder().withoutPadding().encodeToString(rnd);
+        String digest = digest(token);
+        long ttl = Math.min(idleTtlSeconds, remainingLifetime(session));
+        try {
+            redis.opsForValue().set(TOKEN_KEY + digest, json.writeValueAsString(session), Duration.ofSeconds(ttl));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        redis.opsForValue().set(FAMILY_KEY + session.familyId(), digest, Duration.ofSeconds(ttl));
+        return new Issued(token, ttl);
+    }
+
+    private long remainingLifetime(Session session) {
+        return session.createdAtEpochSecond() + maxLifetimeSeconds - System.currentTimeMillis() / 1000;
+    }
+
+    private Session read(String value) {
+        try {
+            return json.readValue(value, Session.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(d);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
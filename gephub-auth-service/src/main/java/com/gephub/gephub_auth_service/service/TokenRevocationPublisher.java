@@ -0,0 +1,65 @@
+package com.gephub.gephub_auth_service.service;
+
+import com.gephub.common.security.TokenRevocationList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Publishes access-token revocations for resource servers. Each revocation is added to the
+ * {@link TokenRevocationList#SNAPSHOT_KEY} sorted set, scored by the time after which no affected token can
+ * still be valid, and then broadcast on {@link TokenRevocationList#CHANNEL}. Messages have the form
+ * {@code <expiresAt>|sub|<sub>|<notBefore>} (tokens for {@code sub} issued before {@code notBefore} are
+ * revoked) or {@code <expiresAt>|jti|<jti>}.
+ */
+@Component
+public class TokenRevocationPublisher {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationPublisher.class);
+
+    private final StringRedisTemplate redis;
+    private final long maxTokenTtlSeconds;
+
+    public TokenRevocationPublisher(StringRedisTemplate redis,
+                                    @Value("${gephub.jwt.revocation.maxTokenTtlSeconds:900}") long maxTokenTtlSeconds) {
+        this.redis = redis;
+        this.maxTokenTtlSeconds = maxTokenTtlSeconds;
+    }
+
+    /**
+     * Revokes every token for {@code subject} whose {@code iat} is earlier than {@code notBeforeEpochSecond}.
+     */
+    public void revokeSubject(String subject, long notBeforeEpochSecond) {
+        publishAfterCommit("sub|" + subject + "|" + notBeforeEpochSecond, notBeforeEpochSecond + maxTokenTtlSeconds);
+    }
+
+    public void revokeTokenId(String jti, long expiresAtEpochSecond) {
+        publishAfterCommit("jti|" + jti, expiresAtEpochSecond);
+    }
+
+    private void publishAfterCommit(String member, long expiresAt) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(member, expiresAt);
+                }
+            });
+        } else {
+            publish(member, expiresAt);
+        }
+    }
+
+    private void publish(String member, long expiresAt) {
+        try {
+            redis.opsForZSet().add(TokenRevocationList.SNAPSHOT_KEY, member, expiresAt);
+            redis.opsForZSet().removeRangeByScore(TokenRevocationList.SNAPSHOT_KEY, Double.NEGATIVE_INFINITY, System.currentTimeMillis() / 1000);
+            redis.convertAndSend(TokenRevocationList.CHANNEL, expiresAt + "|" + member);
+        } catch (Exception e) {
+            log.error("Failed to publish token revocation {}: {}", member, e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.gephub.gephub_auth_service.service;
 
+import com.gephub.common.id.UuidV7;
 import com.gephub.gephub_auth_service.domain.Organization;
 import com.gephub.gephub_auth_service.domain.Membership;
 import com.gephub.gephub_auth_service.domain.OrganizationRole;
@@ -7,10 +8,21 @@ import com.gephub.gephub_auth_service.domain.User;
 import com.gephub.gephub_auth_service.repository.OrganizationRepository;
 import com.gephub.gephub_auth_service.repository.UserRepository;
 import com.gephub.gephub_auth_service.repository.MembershipRepository;
+import com.gephub.gephub_auth_service.repository.UserMembershipRow;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 public class UserService {
@@ -18,44 +30,116 @@ public class UserService {
     private final OrganizationRepository organizationRepository;
     private final PasswordEncoder passwordEncoder;
     private final MembershipRepository membershipRepository;
+    private final MembershipCache membershipCache;
+    private final MeterRegistry meterRegistry;
 
-    public UserService(UserRepository userRepository, OrganizationRepository organizationRepository, PasswordEncoder passwordEncoder, MembershipRepository membershipRepository) {
+    public record LoginPrincipal(UUID userId, String email, List<MembershipCache.MembershipView> memberships) {
+        public UUID organizationId() {
+            return memberships.isEmpty() ? null : memberships.get(0).organizationId();
+        }
+
+        public OrganizationRole role() {
+            return memberships.isEmpty() ? OrganizationRole.READONLY : memberships.get(0).role();
+        }
+
+        /**
+         * Access-token claims for this principal, scoped by its primary membership.
+         */
+        public Map<String, Object> claims() {
+            UUID orgId = organizationId();
+            OrganizationRole role = role();
+            Map<String, Object> claims = new HashMap<>();
+            claims.put("email", email);
+            if (orgId != null) claims.put("org_id", orgId.toString());
+            claims.put("role", role.name());
+            claims.put("scopes", role.scopes());
+            return claims;
+        }
+    }
+
+    public UserService(UserRepository userRepository, OrganizationRepository organizationRepository, PasswordEncoder passwordEncoder,
+                       MembershipRepository membershipRepository, MembershipCache membershipCache, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.organizationRepository = organizationRepository;
         this.passwordEncoder = passwordEncoder;
         this.membershipRepository = membershipRepository;
+        this.membershipCache = membershipCache;
+        this.meterRegistry = meterRegistry;
     }
 
     public User register(String email, String rawPassword, String organizationName) {
         User user = new User();
-        user.setId(UUID.randomUUID());
+        user.setId(UuidV7.next());
         user.setEmail(email.toLowerCase());
-        user.setPasswordHash(passwordEncoder.encode(rawPassword));
+        user.setPasswordHash(timedHash("encode", () -> passwordEncoder.encode(rawPassword)));
         userRepository.save(user);
 
         if (organizationName != null && !organizationName.isBlank()) {
             Organization org = new Organization();
-            org.setId(UUID.randomUUID());
+            org.setId(UuidV7.next());
             org.setName(organizationName);
             organizationRepository.save(org);
             Membership m = new Membership();
             m.setId(new Membership.MembershipId(user.getId(), org.getId()));
             m.setRole(OrganizationRole.OWNER);
             membershipRepository.save(m);
+            membershipCache.evict(user.getId());
         }
         return user;
     }
 
-    public User authenticate(String email, String rawPassword) {
-        User user = userRepository.findByEmail(email.toLowerCase()).orElseThrow();
-        if (!passwordEncoder.matches(rawPassword, user.getPasswordHash())) {
+    /**
+     * Verifies the credentials and returns the user with its memberships, loaded in a single query.
+     */
+    public LoginPrincipal authenticate(String email, String rawPassword) {
+        long stamp = membershipCache.stamp();
+        List<UserMembershipRow> rows = userRepository.findLoginRows(email.toLowerCase());
+        if (rows.isEmpty()) throw new NoSuchElementException("No value present");
+        UserMembershipRow user = rows.get(0);
+        if (!timedHash("verify", () -> passwordEncoder.matches(rawPassword, user.passwordHash()))) {
             throw new IllegalArgumentException("Invalid credentials");
         }
-        if (!user.isActive()) {
+        if (!user.active()) {
             throw new IllegalStateException("User not active");
         }
-        return user;
+        List<MembershipCache.MembershipView> memberships = new ArrayList<>(rows.size());
+        for (UserMembershipRow row : rows) {
+            if (row.organizationId() != null) memberships.add(new MembershipCache.MembershipView(row.organizationId(), row.role()));
+        }
+        membershipCache.put(user.userId(), memberships, stamp);
+        return new LoginPrincipal(user.userId(), user.email(), List.copyOf(memberships));
     }
-}
 
+    /**
+     * The current state of an already-authenticated user, for refreshing its session: empty when the user is gone
+     * or deactivated. The membership in {@code preferredOrganizationId} stays primary while it still exists.
+     */
+    public Optional<LoginPrincipal> reload(UUID userId, UUID preferredOrganizationId) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null || !user.isActive()) return Optional.empty();
+        List<MembershipCache.MembershipView> memberships = new ArrayList<>(membershipCache.forUser(userId));
+        if (preferredOrganizationId != null) {
+            memberships.sort(Comparator.comparing(m -> !m.organizationId().equals(preferredOrganizationId)));
+        }
+        return Optional.of(new LoginPrincipal(user.getId(), user.getEmail(), List.copyOf(memberships)));
+    }
 
+    /**
+     * Times a password hash or verification as {@code gephub.users.password}, including any wait for a
+     * hashing thread.
+     */
+    private <T> T timedHash(String op, Supplier<T> hashing) {
+        long started = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = hashing.get();
+            outcome = result instanceof Boolean match ? (match ? "match" : "mismatch") : "success";
+            return result;
+        } catch (CredentialHashingExecutor.OverloadedException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            meterRegistry.timer("gephub.users.password", "op", op, "outcome", outcome).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+}
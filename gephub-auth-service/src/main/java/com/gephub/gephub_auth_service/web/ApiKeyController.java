@@ -1,33 +1,43 @@
 package com.gephub.gephub_auth_service.web;
 
+import com.gephub.common.security.GephubPrincipal;
+import com.gephub.common.web.KeysetPagination;
 import com.gephub.gephub_auth_service.domain.Organization;
 import com.gephub.gephub_auth_service.service.ApiKeyService;
 import com.gephub.gephub_auth_service.repository.OrganizationRepository;
-import com.gephub.gephub_auth_service.repository.MembershipRepository;
+import com.gephub.gephub_auth_service.service.MembershipCache;
 import com.gephub.gephub_auth_service.domain.OrganizationRole;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/apikeys")
 public class ApiKeyController {
     private final ApiKeyService apiKeyService;
     private final OrganizationRepository organizationRepository;
-    private final MembershipRepository membershipRepository;
+    private final MembershipCache membershipCache;
+    private final KeysetPagination pagination;
+    private final int maxBatchSize;
 
-    public ApiKeyController(ApiKeyService apiKeyService, OrganizationRepository organizationRepository, MembershipRepository membershipRepository) {
+    public ApiKeyController(ApiKeyService apiKeyService, OrganizationRepository organizationRepository, MembershipCache membershipCache,
+                            KeysetPagination pagination, @Value("${gephub.apikeys.batch.maxSize:1000}") int maxBatchSize) {
         this.apiKeyService = apiKeyService;
         this.organizationRepository = organizationRepository;
-        this.membershipRepository = membershipRepository;
+        this.membershipCache = membershipCache;
+        this.pagination = pagination;
+        this.maxBatchSize = maxBatchSize;
     }
 
     public record CreateKeyRequest(
@@ -37,10 +47,11 @@ public class ApiKeyController {
     ) {}
 
     @PostMapping
-    public ResponseEntity<?> create(@AuthenticationPrincipal Jwt jwt, @Valid @RequestBody CreateKeyRequest req) {
-        UUID userId = UUID.fromString(jwt.getSubject());
-        var membership = membershipRepository.find(userId, req.organizationId());
-        if (!membershipRepository.hasAtLeastRole(membership, OrganizationRole.ADMIN)) {
+    public ResponseEntity<?> create(GephubPrincipal principal, @Valid @RequestBody CreateKeyRequest req) {
+        UUID userId = principal.userId();
+        if (userId == null) return ResponseEntity.status(403).build();
+        var role = membershipCache.role(userId, req.organizationId());
+        if (role.isEmpty() || !role.get().atLeast(OrganizationRole.ADMIN)) {
             return ResponseEntity.status(403).build();
         }
         Organization org = organizationRepository.findById(req.organizationId()).orElseThrow();
@@ -51,10 +62,68 @@ public class ApiKeyController {
         ));
     }
 
+    public record BatchCreateRequest(@NotEmpty List<@Valid CreateKeyRequest> keys) {}
+
+    @PostMapping("/batch")
+    public ResponseEntity<?> createBatch(GephubPrincipal principal, @Valid @RequestBody BatchCreateRequest req) {
+        if (req.keys().size() > maxBatchSize) return ResponseEntity.badRequest().build();
+        UUID userId = principal.userId();
+        Set<UUID> orgIds = req.keys().stream().map(CreateKeyRequest::organizationId).collect(Collectors.toSet());
+        if (!isAdminOfAll(userId, orgIds)) return ResponseEntity.status(403).build();
+        var specs = req.keys().stream()
+            .map(k -> new ApiKeyService.KeySpec(k.organizationId(), k.environment(), k.products()))
+            .toList();
+        var items = apiKeyService.createKeys(userId, specs).stream().map(gen -> Map.of(
+            "id", gen.id().toString(),
+            "apiKey", gen.prefix() + "." + gen.secret()
+        )).toList();
+        return ResponseEntity.ok(items);
+    }
+
+    public record BatchIdsRequest(@NotEmpty List<UUID> ids) {}
+
+    @PostMapping("/batch/revoke")
+    public ResponseEntity<?> revokeBatch(GephubPrincipal principal, @Valid @RequestBody BatchIdsRequest req) {
+        ResponseEntity<?> rejected = checkBatch(principal, req.ids());
+        if (rejected != null) return rejected;
+        apiKeyService.revokeAll(req.ids());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/batch/rotate")
+    public ResponseEntity<?> rotateBatch(GephubPrincipal principal, @Valid @RequestBody BatchIdsRequest req) {
+        ResponseEntity<?> rejected = checkBatch(principal, req.ids());
+        if (rejected != null) return rejected;
+        var items = apiKeyService.rotateAll(req.ids()).stream().map(gen -> Map.of(
+            "id", gen.id().toString(),
+            "apiKey", gen.prefix() + "." + gen.secret()
+        )).toList();
+        return ResponseEntity.ok(items);
+    }
+
+    private ResponseEntity<?> checkBatch(GephubPrincipal principal, List<UUID> ids) {
+        if (ids.size() > maxBatchSize || ids.contains(null) || new HashSet<>(ids).size() != ids.size()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<UUID, UUID> orgs = apiKeyService.organizationsOf(ids);
+        if (orgs.size() != ids.size()) return ResponseEntity.notFound().build();
+        if (!isAdminOfAll(principal.userId(), new HashSet<>(orgs.values()))) return ResponseEntity.status(403).build();
+        return null;
+    }
+
+    private boolean isAdminOfAll(UUID userId, Set<UUID> organizationIds) {
+        if (userId == null) return false;
+        for (UUID orgId : organizationIds) {
+            var role = membershipCache.role(userId, orgId);
+            if (role.isEmpty() || !role.get().atLeast(OrganizationRole.ADMIN)) return false;
+        }
+        return true;
+    }
+
     public record RevokeRequest(UUID id) {}
 
     @PostMapping("/revoke")
-    public ResponseEntity<?> revoke(@AuthenticationPrincipal Jwt jwt, @RequestBody RevokeRequest req) {
+    public ResponseEntity<?> revoke(GephubPrincipal principal, @RequestBody RevokeRequest req) {
         // TODO: enforce org ownership by looking up key's org and verifying role; simplified for now
         apiKeyService.revoke(req.id());
         return ResponseEntity.noContent().build();
@@ -63,7 +132,7 @@ public class ApiKeyController {
     public record RotateRequest(UUID id) {}
 
     @PostMapping("/rotate")
-    public ResponseEntity<?> rotate(@AuthenticationPrincipal Jwt jwt, @RequestBody RotateRequest req) {
+    public ResponseEntity<?> rotate(GephubPrincipal principal, @RequestBody RotateRequest req) {
         var gen = apiKeyService.rotate(req.id());
         return ResponseEntity.ok(Map.of(
             "id", gen.id().toString(),
@@ -72,21 +141,12 @@ public class ApiKeyController {
     }
 
     @GetMapping
-    public ResponseEntity<?> list(@AuthenticationPrincipal Jwt jwt, @RequestParam UUID organizationId) {
-        UUID userId = UUID.fromString(jwt.getSubject());
-        var membership = membershipRepository.find(userId, organizationId);
-        if (membership.isEmpty()) return ResponseEntity.status(403).build();
-        var items = apiKeyService.listByOrganization(organizationId).stream().map(k -> Map.of(
-            "id", k.getId().toString(),
-            "organizationId", k.getOrganization().getId().toString(),
-            "keyPrefix", k.getKeyPrefix(),
-            "environment", k.getEnvironment(),
-            "status", k.getStatus(),
-            "products", k.getProducts().stream().map(p -> p.getCode()).toList(),
-            "createdAt", k.getCreatedAt().toString(),
-            "lastUsedAt", k.getLastUsedAt() == null ? null : k.getLastUsedAt().toString()
-        )).toList();
-        return ResponseEntity.ok(items);
+    public ResponseEntity<?> list(GephubPrincipal principal, @RequestParam UUID organizationId,
+                                  @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        UUID userId = principal.userId();
+        if (userId == null || membershipCache.role(userId, organizationId).isEmpty()) return ResponseEntity.status(403).build();
+        return pagination.respond(apiKeyService.listByOrganization(organizationId), accept, cursor, limit);
     }
 }
 
@@ -1,17 +1,22 @@
 package com.gephub.gephub_auth_service.web;
 
 import com.gephub.gephub_auth_service.domain.User;
-import com.gephub.gephub_auth_service.domain.Membership;
-import com.gephub.gephub_auth_service.domain.OrganizationRole;
-import com.gephub.gephub_auth_service.domain.ApiKey;
 import com.gephub.gephub_auth_service.service.JwtService;
 import com.gephub.gephub_auth_service.service.UserService;
 import com.gephub.gephub_auth_service.service.ApiKeyService;
-import com.gephub.gephub_auth_service.repository.MembershipRepository;
+import com.gephub.gephub_auth_service.service.ApiKeyUsageMeter;
+import com.gephub.gephub_auth_service.service.IssuedTokenCache;
+import com.gephub.gephub_auth_service.service.RateLimiter;
+import com.gephub.gephub_auth_service.service.RefreshTokenStore;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -22,14 +27,33 @@ import java.util.UUID;
 public class AuthController {
     private final UserService userService;
     private final JwtService jwtService;
-    private final MembershipRepository membershipRepository;
     private final ApiKeyService apiKeyService;
+    private final IssuedTokenCache issuedTokenCache;
+    private final ApiKeyUsageMeter usageMeter;
+    private final RateLimiter rateLimiter;
+    private final RefreshTokenStore refreshTokenStore;
+    private final RateLimiter.Limit loginPerIp;
+    private final RateLimiter.Limit loginPerEmail;
+    private final RateLimiter.Limit apiKeyTokenPerIp;
+    private final RateLimiter.Limit apiKeyTokenPerPrefix;
 
-    public AuthController(UserService userService, JwtService jwtService, MembershipRepository membershipRepository, ApiKeyService apiKeyService) {
+    public AuthController(UserService userService, JwtService jwtService, ApiKeyService apiKeyService,
+                          IssuedTokenCache issuedTokenCache, ApiKeyUsageMeter usageMeter, RateLimiter rateLimiter, RefreshTokenStore refreshTokenStore,
+                          @Value("${gephub.ratelimit.login.perIp:30/60}") String loginPerIp,
+                          @Value("${gephub.ratelimit.login.perEmail:10/300}") String loginPerEmail,
+                          @Value("${gephub.ratelimit.apiKeyToken.perIp:300/60}") String apiKeyTokenPerIp,
+                          @Value("${gephub.ratelimit.apiKeyToken.perPrefix:120/60}") String apiKeyTokenPerPrefix) {
         this.userService = userService;
         this.jwtService = jwtService;
-        this.membershipRepository = membershipRepository;
         this.apiKeyService = apiKeyService;
+        this.issuedTokenCache = issuedTokenCache;
+        this.usageMeter = usageMeter;
+        this.rateLimiter = rateLimiter;
+        this.refreshTokenStore = refreshTokenStore;
+        this.loginPerIp = RateLimiter.Limit.parse(loginPerIp);
+        this.loginPerEmail = RateLimiter.Limit.parse(loginPerEmail);
+        this.apiKeyTokenPerIp = RateLimiter.Limit.parse(apiKeyTokenPerIp);
+        this.apiKeyTokenPerPrefix = RateLimiter.Limit.parse(apiKeyTokenPerPrefix);
     }
 
     public record RegisterRequest(@Email String email, @NotBlank String password, String organizationName) {}
@@ -43,53 +67,95 @@ public class AuthController {
     public record LoginRequest(@Email String email, @NotBlank String password) {}
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest req) {
-        User user = userService.authenticate(req.email(), req.password());
-        var memberships = membershipRepository.findByUser(user.getId());
-        UUID orgId = memberships.isEmpty() ? null : memberships.get(0).getId().getOrganizationId();
-        OrganizationRole role = memberships.isEmpty() ? OrganizationRole.READONLY : memberships.get(0).getRole();
-        java.util.Set<String> scopes = new java.util.HashSet<>();
-        if (role == OrganizationRole.READONLY) {
-            scopes.add("kyc.session:read");
-            scopes.add("kyc.result:read");
-            scopes.add("meets.room:join");
-            scopes.add("builder.project:read");
-        } else {
-            scopes.add("kyc.*");
-            scopes.add("meets.*");
-            scopes.add("builder.*");
-        }
-        Map<String, Object> claims = new java.util.HashMap<>();
-        claims.put("email", user.getEmail());
-        if (orgId != null) claims.put("org_id", orgId.toString());
-        claims.put("role", role.name());
-        claims.put("scopes", new java.util.ArrayList<>(scopes));
-        String token = jwtService.issueToken(user.getId().toString(), claims, 900);
-        return ResponseEntity.ok(Map.of("access_token", token, "token_type", "Bearer", "expires_in", 900, "org_id", orgId == null ? null : orgId.toString(), "role", role.name(), "scopes", new java.util.ArrayList<>(scopes)));
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest req, HttpServletRequest request) {
+        long wait = rateLimiter.tryAcquire("login:ip", request.getRemoteAddr(), loginPerIp);
+        if (wait == 0 && req.email() != null) wait = rateLimiter.tryAcquire("login:email", req.email().toLowerCase(), loginPerEmail);
+        if (wait > 0) return tooManyRequests(wait);
+        UserService.LoginPrincipal principal = userService.authenticate(req.email(), req.password());
+        Map<String, Object> claims = principal.claims();
+        String subject = principal.userId().toString();
+        return sessionTokens(subject, claims, refreshTokenStore.issue(subject, claims));
+    }
+
+    public record RefreshRequest(@NotBlank String refreshToken) {}
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequest req) {
+        return refreshTokenStore.refresh(req.refreshToken(), this::currentClaims)
+            .<ResponseEntity<?>>map(r -> sessionTokens(r.session().subject(), r.session().claims(), r.next()))
+            .orElseGet(() -> ResponseEntity.status(401).build());
+    }
+
+    /**
+     * Claims for a refreshed session rebuilt from the user's current status and memberships, or {@code null} when the
+     * user is gone or deactivated, so a demotion or removal takes effect at the next refresh.
+     */
+    private Map<String, Object> currentClaims(RefreshTokenStore.Session session) {
+        Object orgId = session.claims().get("org_id");
+        return userService.reload(UUID.fromString(session.subject()), orgId == null ? null : UUID.fromString(orgId.toString()))
+            .map(UserService.LoginPrincipal::claims)
+            .orElse(null);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@Valid @RequestBody RefreshRequest req) {
+        refreshTokenStore.revoke(req.refreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity<?> sessionTokens(String subject, Map<String, Object> claims, RefreshTokenStore.Issued refresh) {
+        String token = jwtService.issueToken(subject, claims, 900);
+        Map<String, Object> body = new java.util.HashMap<>();
+        body.put("access_token", token);
+        body.put("token_type", "Bearer");
+        body.put("expires_in", 900);
+        body.put("refresh_token", refresh.token());
+        body.put("refresh_expires_in", refresh.expiresIn());
+        body.put("org_id", claims.get("org_id"));
+        body.put("role", claims.get("role"));
+        body.put("scopes", claims.get("scopes"));
+        return ResponseEntity.ok(body);
     }
 
     public record ApiKeyTokenRequest(String apiKey) {}
 
     @PostMapping("/api-key/token")
-    public ResponseEntity<?> apiKeyToToken(@RequestBody ApiKeyTokenRequest req) {
+    public ResponseEntity<?> apiKeyToToken(@RequestBody ApiKeyTokenRequest req, HttpServletRequest request) {
+        long wait = rateLimiter.tryAcquire("apikey:ip", request.getRemoteAddr(), apiKeyTokenPerIp);
+        if (wait > 0) return tooManyRequests(wait);
         if (req == null || req.apiKey() == null || req.apiKey().isBlank()) return ResponseEntity.badRequest().build();
-        ApiKey apiKey = apiKeyService.verifyAndLoad(req.apiKey());
+        ApiKeyService.ParsedKey parsed = apiKeyService.parsePresentedKey(req.apiKey());
+        wait = rateLimiter.tryAcquire("apikey:prefix", parsed.prefix(), apiKeyTokenPerPrefix);
+        if (wait > 0) return tooManyRequests(wait);
+        IssuedTokenCache.IssuedToken reused = issuedTokenCache.get(parsed.prefix(), parsed.secret());
+        if (reused != null) {
+            usageMeter.record(reused.apiKeyId(), reused.productCodes());
+            return ResponseEntity.ok(Map.of("access_token", reused.token(), "token_type", "Bearer", "expires_in", reused.expiresIn(), "org_id", reused.organizationId(), "scopes", reused.scopes()));
+        }
+        long stamp = issuedTokenCache.stamp();
+        ApiKeyService.VerifiedKey apiKey = apiKeyService.verifyAndLoad(req.apiKey());
         // Derive scopes from products
-        boolean kyc = apiKey.getProducts().stream().anyMatch(p -> "kyc".equalsIgnoreCase(p.getCode()));
-        boolean meets = apiKey.getProducts().stream().anyMatch(p -> "meets".equalsIgnoreCase(p.getCode()));
-        boolean builder = apiKey.getProducts().stream().anyMatch(p -> "builder".equalsIgnoreCase(p.getCode()));
+        boolean kyc = apiKey.productCodes().contains("kyc");
+        boolean meets = apiKey.productCodes().contains("meets");
+        boolean builder = apiKey.productCodes().contains("builder");
         java.util.List<String> scopes = new java.util.ArrayList<>();
         if (kyc) scopes.add("kyc.*");
         if (meets) scopes.add("meets.*");
         if (builder) scopes.add("builder.*");
         Map<String, Object> claims = new java.util.HashMap<>();
-        claims.put("org_id", apiKey.getOrganization().getId().toString());
+        claims.put("org_id", apiKey.organizationId().toString());
         claims.put("scopes", scopes);
         claims.put("role", "DEV");
-        String subject = "apiKey:" + apiKey.getId();
-        String token = jwtService.issueToken(subject, claims, 900);
-        return ResponseEntity.ok(Map.of("access_token", token, "token_type", "Bearer", "expires_in", 900, "org_id", apiKey.getOrganization().getId().toString(), "scopes", scopes));
+        String subject = ApiKeyService.subject(apiKey.id());
+        Jwt token = jwtService.issue(subject, claims, 900);
+        issuedTokenCache.put(parsed.prefix(), parsed.secret(), token, apiKey, scopes, stamp);
+        usageMeter.record(apiKey.id(), apiKey.productCodes());
+        return ResponseEntity.ok(Map.of("access_token", token.getTokenValue(), "token_type", "Bearer", "expires_in", 900, "org_id", apiKey.organizationId().toString(), "scopes", scopes));
     }
-}
-
 
+    private static ResponseEntity<?> tooManyRequests(long waitMillis) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitMillis + 999) / 1000)))
+            .build();
+    }
+}
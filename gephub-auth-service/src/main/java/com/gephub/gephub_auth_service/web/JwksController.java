@@ -1,25 +1,82 @@
 package com.gephub.gephub_auth_service.web;
 
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
+import com.gephub.common.security.RefreshingJwkSource;
+import com.gephub.gephub_auth_service.service.JwtKeyRing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
 
 @RestController
 public class JwksController {
-    private final RSAKey rsaKey;
+    /**
+     * Lower bound on {@code max-age}, so an overdue rotation does not leave every client revalidating on each request.
+     */
+    private static final long MIN_MAX_AGE_SECONDS = 5;
 
-    public JwksController(RSAKey rsaKey) {
-        this.rsaKey = rsaKey;
+    private final JwtKeyRing keyRing;
+    private final long maxAgeSeconds;
+    private volatile Rendered rendered;
+
+    private record Rendered(byte[] body, String etag) {}
+
+    public JwksController(JwtKeyRing keyRing, @Value("${gephub.jwt.jwksMaxAgeSeconds:300}") long maxAgeSeconds) {
+        this.keyRing = keyRing;
+        this.maxAgeSeconds = maxAgeSeconds;
+        render(keyRing);
+        keyRing.onChange(this::render);
     }
 
     @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Map<String, Object> jwks() {
-        return new JWKSet(rsaKey.toPublicJWK()).toJSONObject();
+    public ResponseEntity<byte[]> jwks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Rendered r = rendered;
+        Date nextRollover = keyRing.nextRotation();
+        long maxAge = maxAgeSeconds;
+        if (nextRollover != null) {
+            long untilRollover = (nextRollover.getTime() - System.currentTimeMillis()) / 1000;
+            maxAge = Math.max(Math.min(maxAge, MIN_MAX_AGE_SECONDS), Math.min(maxAge, untilRollover));
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(r.etag());
+        headers.setCacheControl(CacheControl.maxAge(Duration.ofSeconds(maxAge)).cachePublic());
+        if (nextRollover != null) headers.set(RefreshingJwkSource.NEXT_ROLLOVER_HEADER, String.valueOf(nextRollover.getTime() / 1000));
+        if (matches(ifNoneMatch, r.etag())) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(r.body().length);
+        return new ResponseEntity<>(r.body(), headers, HttpStatus.OK);
     }
-}
 
+    private void render(JwtKeyRing ring) {
+        byte[] body = ring.publicJwkSet().toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            rendered = new Rendered(body, "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.startsWith("W/")) c = c.substring(2);
+            if (c.equals("*") || c.equals(etag)) return true;
+        }
+        return false;
+    }
+}
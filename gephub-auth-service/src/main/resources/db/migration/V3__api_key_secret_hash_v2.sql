@@ -0,0 +1,9 @@
+-- API key secrets are stored either as legacy BCrypt ($2a$/$2b$/$2y$) or as
+-- versioned HMAC-SHA-256 (v2$<base64url>). Legacy rows are upgraded on next successful verification.
+ALTER TABLE api_keys
+    ADD CONSTRAINT chk_api_keys_secret_hash_format
+    CHECK (secret_hash ~ '^(\$2[aby]\$|v2\$)');
+
+COMMENT ON COLUMN api_keys.secret_hash IS 'v2$<base64url HMAC-SHA-256(pepper, secret)> or legacy BCrypt';
+
+CREATE INDEX idx_api_keys_legacy_hash ON api_keys (id) WHERE secret_hash NOT LIKE 'v2$%';
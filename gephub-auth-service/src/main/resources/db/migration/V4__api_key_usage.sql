@@ -0,0 +1,9 @@
+CREATE TABLE api_key_usage (
+    api_key_id UUID NOT NULL REFERENCES api_keys(id) ON DELETE CASCADE,
+    product_code VARCHAR(64) NOT NULL,
+    minute TIMESTAMPTZ NOT NULL,
+    request_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (api_key_id, product_code, minute)
+);
+
+CREATE INDEX idx_api_key_usage_minute ON api_key_usage (minute);
@@ -0,0 +1,159 @@
+package com.gephub.gephub_auth_service.service;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link JwtMinter} claims to produce what {@code NimbusJwtEncoder} produces for the same input, which rests on
+ * replaying the encoder's map conversions. This pins that down against the encoder actually on the classpath, so a
+ * dependency bump that changes claim order or escaping fails here instead of in production.
+ */
+class JwtMinterTest {
+    private static final String ISSUER = "https://auth.gephub.local";
+    private static final int CLAIM_SETS = 3000;
+    private static final Set<String> REGISTERED = Set.of("iss", "sub", "aud", "exp", "nbf", "iat", "jti");
+
+    private static RSAKey rsa;
+    private static ECKey ec;
+    private static NimbusJwtEncoder encoder;
+
+    @BeforeAll
+    static void keys() throws Exception {
+        rsa = new RSAKeyGenerator(2048).keyUse(KeyUse.SIGNATURE).algorithm(JWSAlgorithm.RS256).keyIDFromThumbprint(true).generate();
+        ec = new ECKeyGenerator(Curve.P_256).keyUse(KeyUse.SIGNATURE).algorithm(JWSAlgorithm.ES256).keyIDFromThumbprint(true).generate();
+        encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(List.of(rsa, ec))));
+    }
+
+    @Test
+    void rs256TokensMatchTheEncoderByteForByte() throws Exception {
+        JwtMinter minter = new JwtMinter(ISSUER);
+        Random random = new Random(14);
+        for (int i = 0; i < CLAIM_SETS; i++) {
+            Map<String, Object> claims = randomClaims(random);
+            Instant now = Instant.ofEpochSecond(1_700_000_000L + random.nextInt(1_000_000));
+            String jti = UUID.randomUUID().toString();
+            String minted = minter.mint(rsa, JWSAlgorithm.RS256, "user-" + i, jti, now.getEpochSecond(), now.getEpochSecond() + 900, claims);
+            assertNotNull(minted, () -> "minter declined " + claims);
+            assertEquals(encode(rsa, SignatureAlgorithm.RS256, "user-" + i, jti, now, claims), minted, () -> "claims " + claims);
+            assertTrue(SignedJWT.parse(minted).verify(new RSASSAVerifier(rsa.toRSAPublicKey())));
+        }
+    }
+
+    /**
+     * ECDSA signatures are randomized, so only the signing input can match; the signature must still verify.
+     */
+    @Test
+    void es256TokensMatchTheEncoderUpToTheSignature() throws Exception {
+        JwtMinter minter = new JwtMinter(ISSUER);
+        Random random = new Random(15);
+        for (int i = 0; i < CLAIM_SETS; i++) {
+            Map<String, Object> claims = randomClaims(random);
+            Instant now = Instant.ofEpochSecond(1_700_000_000L + random.nextInt(1_000_000));
+            String jti = UUID.randomUUID().toString();
+            String minted = minter.mint(ec, JWSAlgorithm.ES256, "user-" + i, jti, now.getEpochSecond(), now.getEpochSecond() + 900, claims);
+            assertNotNull(minted, () -> "minter declined " + claims);
+            String encoded = encode(ec, SignatureAlgorithm.ES256, "user-" + i, jti, now, claims);
+            assertEquals(encoded.substring(0, encoded.lastIndexOf('.')), minted.substring(0, minted.lastIndexOf('.')), () -> "claims " + claims);
+            assertTrue(SignedJWT.parse(minted).verify(new ECDSAVerifier(ec.toECPublicKey())));
+        }
+    }
+
+    @Test
+    void declinesClaimsItCannotWrite() {
+        JwtMinter minter = new JwtMinter(ISSUER);
+        assertEquals(null, minter.mint(rsa, JWSAlgorithm.RS256, "s", "j", 1, 2, Map.of("sub", "override")));
+        assertEquals(null, minter.mint(rsa, JWSAlgorithm.RS256, "s", "j", 1, 2, Map.of("at", Instant.EPOCH)));
+    }
+
+    private static String encode(JWK key, SignatureAlgorithm alg, String subject, String jti, Instant now, Map<String, Object> claims) {
+        JwtClaimsSet.Builder builder = JwtClaimsSet.builder()
+            .issuer(ISSUER)
+            .issuedAt(now)
+            .expiresAt(now.plusSeconds(900))
+            .subject(subject)
+            .id(jti);
+        claims.forEach(builder::claim);
+        JwsHeader header = JwsHeader.with(alg).keyId(key.getKeyID()).build();
+        return encoder.encode(JwtEncoderParameters.from(header, builder.build())).getTokenValue();
+    }
+
+    private static Map<String, Object> randomClaims(Random random) {
+        Map<String, Object> claims = new HashMap<>();
+        List<String> names = List.of("org_id", "role", "scopes", "email", "products", "tier", "ctx");
+        int count = random.nextInt(8);
+        for (int i = 0; i < count; i++) {
+            String name = random.nextBoolean() ? names.get(random.nextInt(names.size())) : randomName(random);
+            if (!REGISTERED.contains(name)) claims.put(name, randomValue(random, 0));
+        }
+        return claims;
+    }
+
+    private static Object randomValue(Random random, int depth) {
+        return switch (random.nextInt(depth < 2 ? 7 : 5)) {
+            case 0, 1 -> randomString(random);
+            case 2 -> random.nextBoolean();
+            case 3 -> random.nextInt();
+            case 4 -> random.nextLong();
+            case 5 -> {
+                List<Object> list = new ArrayList<>();
+                for (int i = random.nextInt(4); i > 0; i--) list.add(randomValue(random, depth + 1));
+                yield list;
+            }
+            default -> {
+                Map<String, Object> map = new HashMap<>();
+                for (int i = random.nextInt(4); i > 0; i--) map.put(randomName(random), randomValue(random, depth + 1));
+                yield map;
+            }
+        };
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1 + random.nextInt(10); i > 0; i--) sb.append((char) ('a' + random.nextInt(26)));
+        return sb.toString();
+    }
+
+    /**
+     * Mostly ASCII, with quotes, backslashes, control characters, line separators, non-Latin text and emoji mixed in.
+     */
+    private static String randomString(Random random) {
+        String[] specials = {"\"", "\\", "/", "\n", "\t", "\b", "\f", "\r", "\u0001", "\u001f", "\u2028", "\u2029", "\u00e9", "\u03a9", "\u65e5\u672c", "\ud83d\ude00"};
+        StringBuilder sb = new StringBuilder();
+        for (int i = random.nextInt(20); i > 0; i--) {
+            if (random.nextInt(5) == 0) sb.append(specials[random.nextInt(specials.length)]);
+            else sb.append((char) (' ' + random.nextInt(95)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,121 @@
+package com.gephub.common.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Node-local map of at most {@code maxEntries} values, each live until its own deadline in epoch millis. When
+ * full, the oldest insertions are evicted first, so a put costs amortized O(1) instead of a scan over every
+ * entry; expired entries are dropped when read or when they reach the head of the eviction queue. A
+ * {@code maxEntries} of zero or less disables caching.
+ */
+public final class BoundedCache<K, V> {
+    public static final long NO_EXPIRY = Long.MAX_VALUE;
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<K, Node<K, V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Node<K, V>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    /**
+     * Identity matters: the queue may still hold a node whose key has since been replaced or removed.
+     */
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        final long expiresAt;
+
+        Node(K key, V value, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public BoundedCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the value for {@code key}, or null when absent or expired.
+     */
+    public V get(K key) {
+        Node<K, V> n = entries.get(key);
+        if (n == null) return null;
+        if (n.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key, n);
+            return null;
+        }
+        return n.value;
+    }
+
+    public void put(K key, V value, long expiresAt) {
+        if (maxEntries <= 0) return;
+        Node<K, V> n = new Node<>(key, value, expiresAt);
+        entries.put(key, n);
+        enqueue(n);
+    }
+
+    /**
+     * Returns the live value for {@code key}, loading and caching it until {@code expiresAt} when absent.
+     * Without capacity the loaded value is returned uncached.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader, long expiresAt) {
+        V v = get(key);
+        if (v != null) return v;
+        if (maxEntries <= 0) return loader.apply(key);
+        long now = System.currentTimeMillis();
+        var loaded = new Object() { Node<K, V> node; };
+        Node<K, V> n = entries.compute(key, (k, old) -> old != null && old.expiresAt > now
+            ? old : (loaded.node = new Node<>(k, loader.apply(k), expiresAt)));
+        if (n == loaded.node) enqueue(n);
+        return n.value;
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Drops every entry whose value matches; a full scan, meant for rare bulk invalidation.
+     */
+    public void removeIf(Predicate<? super V> filter) {
+        entries.values().removeIf(n -> filter.test(n.value));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Number of cached entries, including expired ones not yet dropped.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void enqueue(Node<K, V> n) {
+        insertionOrder.add(n);
+        queued.incrementAndGet();
+        while (entries.size() > maxEntries) {
+            Node<K, V> oldest = insertionOrder.poll();
+            if (oldest == null) break;
+            queued.decrementAndGet();
+            entries.remove(oldest.key, oldest);
+        }
+        // Replaced and removed entries leave stale nodes behind; sweep them once the queue doubles the capacity.
+        if (queued.get() > 2 * maxEntries && compacting.compareAndSet(false, true)) {
+            try {
+                insertionOrder.removeIf(q -> entries.get(q.key) != q);
+                queued.set(insertionOrder.size());
+            } finally {
+                compacting.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.gephub.common.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Provides the service's {@link OutboundHttpClient}.
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+public class GephubHttpClientAutoConfiguration {
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public OutboundHttpClient outboundHttpClient(@Value("${gephub.http.connectTimeoutMs:2000}") long connectTimeoutMs,
+                                                 @Value("${gephub.http.version:HTTP_2}") HttpClient.Version version,
+                                                 @Value("${gephub.http.maxConnectionsPerHost:20}") int maxConnectionsPerHost,
+                                                 @Value("${gephub.http.maxPendingPerHost:500}") int maxPendingPerHost,
+                                                 MeterRegistry meterRegistry) {
+        return new OutboundHttpClient(Duration.ofMillis(connectTimeoutMs), version, maxConnectionsPerHost, maxPendingPerHost, meterRegistry);
+    }
+}
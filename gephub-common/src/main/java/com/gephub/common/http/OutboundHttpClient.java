@@ -0,0 +1,245 @@
+package com.gephub.common.http;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The one outbound HTTP client of a service: a single JDK {@link HttpClient} (HTTP/2 where the server offers it,
+ * pooled keep-alive connections otherwise) shared by every caller. Calls go through a named {@link Destination}
+ * that sets their timeout and metrics tag. At most {@code maxConnectionsPerHost} requests run against one host at
+ * a time; further requests wait in a per-host queue of up to {@code maxPendingPerHost} without holding a thread,
+ * and are rejected beyond that, so one slow receiver can't take every connection and thread with it.
+ */
+public class OutboundHttpClient implements AutoCloseable {
+    private final HttpClient http;
+    private final int maxConnectionsPerHost;
+    private final int maxPendingPerHost;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, HostLimiter> hosts = new ConcurrentHashMap<>();
+    private final Map<String, Destination> destinations = new ConcurrentHashMap<>();
+
+    public OutboundHttpClient(Duration connectTimeout, HttpClient.Version version, int maxConnectionsPerHost, int maxPendingPerHost,
+                              MeterRegistry meterRegistry) {
+        this.http = HttpClient.newBuilder()
+            .version(version)
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+        this.maxConnectionsPerHost = Math.max(1, maxConnectionsPerHost);
+        this.maxPendingPerHost = Math.max(0, maxPendingPerHost);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * The destination called {@code name}, created with {@code timeout} as its request timeout on first use.
+     */
+    public Destination destination(String name, Duration timeout) {
+        return destinations.computeIfAbsent(name, n -> new Destination(n, timeout));
+    }
+
+    @Override
+    public void close() {
+        http.close();
+    }
+
+    /**
+     * Requests to one kind of remote service, e.g. webhook receivers or the LLM provider.
+     */
+    public final class Destination {
+        private final String name;
+        private final Duration timeout;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final Timer queueWait;
+
+        private Destination(String name, Duration timeout) {
+            this.name = name;
+            this.timeout = timeout;
+            this.queueWait = Timer.builder("gephub.http.client.queue").tag("destination", name).register(meterRegistry);
+            Gauge.builder("gephub.http.client.active", active, AtomicInteger::get).tag("destination", name).register(meterRegistry);
+            Gauge.builder("gephub.http.client.pending", pending, AtomicInteger::get).tag("destination", name).register(meterRegistry);
+        }
+
+        public Duration timeout() {
+            return timeout;
+        }
+
+        /**
+         * Sends once a connection to the request's host is free. The request's own timeout wins over the destination's
+         * and covers the wait for a connection plus the exchange: a queued request is sent with what is left of it.
+         * Cancelling the returned future while the request is still queued gives up its place in the queue.
+         */
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+            HttpRequest timed = request.timeout().isPresent() ? request : HttpRequest.newBuilder(request, (n, v) -> true).timeout(timeout).build();
+            HostLimiter limiter = hosts.computeIfAbsent(hostKey(request.uri()), k -> new HostLimiter());
+            Duration wait = timed.timeout().orElse(timeout);
+            long queued = System.nanoTime();
+            CompletableFuture<Void> slot = limiter.acquire(this);
+            boolean waited = !slot.isDone();
+            if (waited) {
+                CompletableFuture.delayedExecutor(wait.toNanos(), TimeUnit.NANOSECONDS)
+                    .execute(() -> slot.completeExceptionally(new HttpTimeoutException("No connection to " + request.uri().getHost() + " within " + wait)));
+            }
+            CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+            slot.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    record(queued, error instanceof RejectedExecutionException ? "rejected" : outcome(null, error));
+                    result.completeExceptionally(error);
+                    return;
+                }
+                if (result.isDone()) {
+                    limiter.release();
+                    return;
+                }
+                long started = System.nanoTime();
+                queueWait.record(started - queued, TimeUnit.NANOSECONDS);
+                HttpRequest send = timed;
+                if (waited) {
+                    Duration left = wait.minusNanos(started - queued);
+                    if (left.isNegative() || left.isZero()) {
+                        limiter.release();
+                        HttpTimeoutException e = new HttpTimeoutException("No time left for " + request.uri().getHost() + " after queueing for " + wait);
+                        record(queued, outcome(null, e));
+                        result.completeExceptionally(e);
+                        return;
+                    }
+                    send = HttpRequest.newBuilder(timed, (n, v) -> true).timeout(left).build();
+                }
+                active.incrementAndGet();
+                CompletableFuture<HttpResponse<T>> sent;
+                try {
+                    sent = http.sendAsync(send, handler);
+                } catch (RuntimeException e) {
+                    sent = CompletableFuture.failedFuture(e);
+                }
+                sent.whenComplete((response, sendError) -> {
+                    active.decrementAndGet();
+                    limiter.release();
+                    record(started, outcome(response, sendError));
+                    if (sendError != null) result.completeExceptionally(sendError);
+                    else result.complete(response);
+                });
+            });
+            result.whenComplete((response, error) -> {
+                if (result.isCancelled()) slot.cancel(false);
+            });
+            return result;
+        }
+
+        /**
+         * Blocking {@link #sendAsync}, for callers that need the response before carrying on.
+         */
+        public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+            CompletableFuture<HttpResponse<T>> response = sendAsync(request, handler);
+            try {
+                return response.get();
+            } catch (InterruptedException e) {
+                response.cancel(true);
+                throw e;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException io) throw io;
+                if (cause instanceof RuntimeException re) throw re;
+                throw new IOException(cause);
+            }
+        }
+
+        private void record(long startedNanos, String outcome) {
+            meterRegistry.timer("gephub.http.client.requests", "destination", name, "outcome", outcome)
+                .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Outcome tag for a finished request: the status class, {@code timeout}, {@code cancelled} or {@code error}.
+     */
+    static String outcome(HttpResponse<?> response, Throwable error) {
+        if (response != null) return (response.statusCode() / 100) + "xx";
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof HttpTimeoutException) return "timeout";
+        if (cause instanceof CancellationException) return "cancelled";
+        return "error";
+    }
+
+    private static String hostKey(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+    }
+
+    /**
+     * Connection slots for one host. A released slot goes straight to the longest-waiting request.
+     */
+    private final class HostLimiter {
+        private final ArrayDeque<Waiter> waiting = new ArrayDeque<>();
+        private int inUse;
+
+        private record Waiter(CompletableFuture<Void> slot, Destination destination) {}
+
+        CompletableFuture<Void> acquire(Destination destination) {
+            Waiter waiter;
+            synchronized (this) {
+                if (inUse < maxConnectionsPerHost) {
+                    inUse++;
+                    return CompletableFuture.completedFuture(null);
+                }
+                if (waiting.size() >= maxPendingPerHost) {
+                    return CompletableFuture.failedFuture(new RejectedExecutionException("Too many pending requests to one host"));
+                }
+                waiter = new Waiter(new CompletableFuture<>(), destination);
+                waiting.add(waiter);
+                destination.pending.incrementAndGet();
+            }
+            waiter.slot().whenComplete((ignored, error) -> {
+                if (error != null) abandon(waiter);
+            });
+            return waiter.slot();
+        }
+
+        /**
+         * Hands the slot to the longest-waiting request that still wants it, or frees it.
+         */
+        void release() {
+            while (true) {
+                Waiter next;
+                synchronized (this) {
+                    next = waiting.poll();
+                    if (next == null) {
+                        inUse--;
+                        return;
+                    }
+                }
+                next.destination().pending.decrementAndGet();
+                if (next.slot().complete(null)) return;
+            }
+        }
+
+        /**
+         * Drops a waiter that timed out or was cancelled before it got a slot.
+         */
+        private void abandon(Waiter waiter) {
+            boolean removed;
+            synchronized (this) {
+                removed = waiting.remove(waiter);
+            }
+            if (removed) waiter.destination().pending.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.gephub.common.id;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUIDv7 (RFC 9562) identifiers for primary keys. The top 48 bits are the Unix time in
+ * milliseconds, so new rows land on the right-hand edge of the primary-key index instead of random pages.
+ * The 12-bit {@code rand_a} field is a counter within the millisecond, which keeps ids from this JVM strictly
+ * increasing even when many are generated per millisecond or the clock steps back. The remaining 62 bits
+ * come from a per-thread {@link SecureRandom}.
+ */
+public final class UuidV7 {
+    private static final AtomicLong LAST = new AtomicLong();
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(UuidV7::newRandom);
+
+    private UuidV7() {}
+
+    public static UUID next() {
+        long now = System.currentTimeMillis() << 12;
+        long prev;
+        long stamp;
+        do {
+            prev = LAST.get();
+            stamp = Math.max(prev + 1, now);
+        } while (!LAST.compareAndSet(prev, stamp));
+        long msb = (stamp >>> 12) << 16 | 0x7000L | (stamp & 0xFFFL);
+        long lsb = RANDOM.get().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Milliseconds since the epoch encoded in a version 7 id.
+     */
+    public static long timestamp(UUID id) {
+        if (id.version() != 7) throw new IllegalArgumentException("Not a version 7 UUID: " + id);
+        return id.getMostSignificantBits() >>> 16;
+    }
+
+    private static SecureRandom newRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.gephub.common.security;
+
+import com.gephub.common.cache.BoundedCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Predicate;
+
+/**
+ * Caches tokens decoded by the delegate, keyed by a SHA-256 digest of the raw token, so a bearer token
+ * presented again skips signature verification. Entries live until the token's {@code exp} but at most
+ * {@code maxTtl}, which bounds how long a token signed with a key that has since left the JWKS is still
+ * accepted; {@link #evictKeys} drops such tokens right away. Cache hits are re-checked with
+ * {@code hitValidator}, typically the revocation list, and only successfully decoded tokens are cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final JwtDecoder delegate;
+    private final OAuth2TokenValidator<Jwt> hitValidator;
+    private final int maxEntries;
+    private final Duration maxTtl;
+    private final BoundedCache<Key, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    private record Key(long high, long low) {}
+
+    private record Entry(byte[] digest, Jwt jwt, String keyId) {}
+
+    public CachingJwtDecoder(JwtDecoder delegate, OAuth2TokenValidator<Jwt> hitValidator, int maxEntries, Duration maxTtl,
+                             MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.hitValidator = hitValidator;
+        this.maxEntries = maxEntries;
+        this.maxTtl = maxTtl;
+        this.entries = new BoundedCache<>(maxEntries);
+        this.hits = Counter.builder("gephub.jwt.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("gephub.jwt.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("gephub.jwt.cache.size", entries, BoundedCache::size).register(meterRegistry);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (token == null || maxEntries <= 0) return delegate.decode(token);
+        byte[] digest = SHA256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer b = ByteBuffer.wrap(digest);
+        Key key = new Key(b.getLong(), b.getLong());
+        Instant now = Instant.now();
+        Entry e = entries.get(key);
+        if (e != null && MessageDigest.isEqual(e.digest(), digest)) {
+            OAuth2TokenValidatorResult result = hitValidator.validate(e.jwt());
+            if (result.hasErrors()) {
+                entries.remove(key);
+                throw new JwtValidationException(result.getErrors().iterator().next().getDescription(), result.getErrors());
+            }
+            hits.increment();
+            return e.jwt();
+        }
+        misses.increment();
+        Jwt jwt = delegate.decode(token);
+        Instant expiresAt = now.plus(maxTtl);
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isBefore(expiresAt)) expiresAt = jwt.getExpiresAt();
+        if (now.isBefore(expiresAt)) entries.put(key, new Entry(digest, jwt, (String) jwt.getHeaders().get("kid")), expiresAt.toEpochMilli());
+        return jwt;
+    }
+
+    /**
+     * Drops cached tokens signed with a key for which {@code removed} is true, e.g. after a JWKS refresh.
+     */
+    public void evictKeys(Predicate<String> removed) {
+        entries.removeIf(e -> removed.test(e.keyId()));
+    }
+
+    public void evictAll() {
+        entries.clear();
+    }
+}
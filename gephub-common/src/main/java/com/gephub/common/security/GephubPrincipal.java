@@ -0,0 +1,125 @@
+package com.gephub.common.security;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authorization view of a validated access token, built once per request from the {@link Jwt} and kept
+ * in the {@link #REQUEST_ATTRIBUTE} request attribute. Scope sets are interned across requests, since
+ * tokens for the same role carry the same scope list, and {@code <product>.*} grants every scope of
+ * that product.
+ */
+public final class GephubPrincipal {
+    public static final String REQUEST_ATTRIBUTE = GephubPrincipal.class.getName();
+
+    private static final int MAX_INTERNED_SCOPES = 1024;
+    private static final Map<Object, Scopes> INTERNED = new ConcurrentHashMap<>();
+
+    private final String subject;
+    private final UUID userId;
+    private final UUID organizationId;
+    private final Role role;
+    private final Scopes scopes;
+
+    private record Scopes(Set<String> granted, String[] wildcards) {
+        static Scopes of(Collection<String> values) {
+            List<String> wildcards = new ArrayList<>();
+            for (String s : values) {
+                if (s.endsWith(".*")) wildcards.add(s.substring(0, s.length() - 1));
+            }
+            return new Scopes(Set.copyOf(values), wildcards.toArray(new String[0]));
+        }
+
+        boolean has(String required) {
+            if (granted.contains(required)) return true;
+            for (String w : wildcards) {
+                if (required.startsWith(w)) return true;
+            }
+            return false;
+        }
+    }
+
+    private GephubPrincipal(String subject, UUID organizationId, Role role, Scopes scopes) {
+        this.subject = subject;
+        this.userId = parseUuid(subject);
+        this.organizationId = organizationId;
+        this.role = role;
+        this.scopes = scopes;
+    }
+
+    public static GephubPrincipal from(Jwt jwt) {
+        String org = jwt.getClaimAsString("org_id");
+        return new GephubPrincipal(jwt.getSubject(), org != null ? UUID.fromString(org) : null, Role.parse(roleClaim(jwt)), scopes(jwt));
+    }
+
+    public String subject() {
+        return subject;
+    }
+
+    /**
+     * The subject as a user id, or null when the token was not issued to a user (e.g. an API key).
+     */
+    public UUID userId() {
+        return userId;
+    }
+
+    public UUID organizationId() {
+        return organizationId;
+    }
+
+    public Role role() {
+        return role;
+    }
+
+    public boolean roleAtLeast(Role required) {
+        return role != null && role.atLeast(required);
+    }
+
+    public boolean hasScope(String required) {
+        return scopes.has(required);
+    }
+
+    public Set<String> scopes() {
+        return scopes.granted();
+    }
+
+    private static String roleClaim(Jwt jwt) {
+        String r = jwt.getClaimAsString("role");
+        if (r != null) return r;
+        List<String> roles = jwt.getClaimAsStringList("roles");
+        return (roles != null && !roles.isEmpty()) ? roles.get(0) : null;
+    }
+
+    private static Scopes scopes(Jwt jwt) {
+        Object claim = jwt.getClaim("scopes");
+        if (!(claim instanceof Collection<?>)) claim = jwt.getClaimAsString("scope");
+        if (claim == null) return Scopes.of(List.of());
+        Scopes s = INTERNED.get(claim);
+        if (s != null) return s;
+        List<String> values = new ArrayList<>();
+        if (claim instanceof Collection<?> c) {
+            for (Object o : c) values.add(o.toString());
+        } else {
+            values.addAll(List.of(claim.toString().split(" ")));
+        }
+        s = Scopes.of(values);
+        if (INTERNED.size() < MAX_INTERNED_SCOPES) INTERNED.putIfAbsent(claim, s);
+        return s;
+    }
+
+    private static UUID parseUuid(String value) {
+        if (value == null || value.length() != 36) return null;
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.gephub.common.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Resolves {@link GephubPrincipal} controller parameters for JWT-authenticated requests, or null when
+ * the request is not authenticated with a JWT.
+ */
+public class GephubPrincipalResolver implements HandlerMethodArgumentResolver {
+    /**
+     * Returns the request's principal, building and storing it on first use.
+     */
+    public static GephubPrincipal current(HttpServletRequest request) {
+        Object cached = request.getAttribute(GephubPrincipal.REQUEST_ATTRIBUTE);
+        if (cached instanceof GephubPrincipal p) return p;
+        GephubPrincipal p = fromSecurityContext();
+        if (p != null) request.setAttribute(GephubPrincipal.REQUEST_ATTRIBUTE, p);
+        return p;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.getParameterType() == GephubPrincipal.class;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer, NativeWebRequest webRequest,
+                                  WebDataBinderFactory binderFactory) {
+        Object cached = webRequest.getAttribute(GephubPrincipal.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof GephubPrincipal p) return p;
+        GephubPrincipal p = fromSecurityContext();
+        if (p != null) webRequest.setAttribute(GephubPrincipal.REQUEST_ATTRIBUTE, p, RequestAttributes.SCOPE_REQUEST);
+        return p;
+    }
+
+    private static GephubPrincipal fromSecurityContext() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getPrincipal() instanceof Jwt jwt ? GephubPrincipal.from(jwt) : null;
+    }
+}
@@ -0,0 +1,82 @@
+package com.gephub.common.security;
+
+import com.gephub.common.http.GephubHttpClientAutoConfiguration;
+import com.gephub.common.http.OutboundHttpClient;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.OAuth2ResourceServerAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Validates the auth-service's access tokens in services that set {@code gephub.jwt.jwks-uri}: keys come from a
+ * {@link RefreshingJwkSource}, revoked tokens are rejected by the {@link TokenRevocationList}, and decoded tokens are
+ * cached by a {@link CachingJwtDecoder}.
+ */
+@AutoConfiguration(after = {GephubHttpClientAutoConfiguration.class, RedisAutoConfiguration.class},
+    before = OAuth2ResourceServerAutoConfiguration.class)
+@ConditionalOnClass({JwtDecoder.class, StringRedisTemplate.class})
+@ConditionalOnProperty(prefix = "gephub.jwt", name = "jwks-uri")
+public class GephubResourceServerAutoConfiguration {
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public RefreshingJwkSource jwkSource(@Value("${gephub.jwt.jwks-uri}") String jwksUri,
+                                         @Value("${gephub.jwt.jwks.maxAgeSeconds:300}") long maxAgeSeconds,
+                                         @Value("${gephub.jwt.jwks.refreshAhead:0.8}") double refreshAhead,
+                                         @Value("${gephub.jwt.jwks.minKidMissIntervalMs:10000}") long minKidMissIntervalMs,
+                                         OutboundHttpClient http, MeterRegistry meterRegistry) {
+        return new RefreshingJwkSource(jwksUri, http, Duration.ofSeconds(maxAgeSeconds), refreshAhead, Duration.ofMillis(minKidMissIntervalMs), meterRegistry);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public TokenRevocationList tokenRevocationList(StringRedisTemplate redis,
+                                                   @Value("${gephub.jwt.revocation.bloomBits:1048576}") int bloomBits,
+                                                   @Value("${gephub.jwt.revocation.reloadIntervalMs:60000}") long reloadIntervalMs) {
+        return new TokenRevocationList(redis, bloomBits, Duration.ofMillis(reloadIntervalMs));
+    }
+
+    @Bean
+    public RedisMessageListenerContainer tokenRevocationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                          TokenRevocationList tokenRevocationList) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(tokenRevocationList, new ChannelTopic(TokenRevocationList.CHANNEL));
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JwtDecoder jwtDecoder(RefreshingJwkSource jwkSource, @Value("${gephub.jwt.issuer}") String issuer,
+                                 @Value("${gephub.jwt.cache.maxEntries:10000}") int cacheMaxEntries,
+                                 @Value("${gephub.jwt.cache.maxTtlSeconds:300}") long cacheMaxTtlSeconds,
+                                 TokenRevocationList revocationList, MeterRegistry meterRegistry) {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(Set.of(JWSAlgorithm.RS256, JWSAlgorithm.ES256), jwkSource));
+        processor.setJWTClaimsSetVerifier((claims, context) -> {});
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(processor);
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(JwtValidators.createDefaultWithIssuer(issuer), revocationList));
+        CachingJwtDecoder cachingDecoder = new CachingJwtDecoder(decoder, revocationList, cacheMaxEntries, Duration.ofSeconds(cacheMaxTtlSeconds), meterRegistry);
+        jwkSource.onChange(keys -> cachingDecoder.evictKeys(kid -> kid == null || keys.getKeyByKeyId(kid) == null));
+        return cachingDecoder;
+    }
+}
@@ -0,0 +1,240 @@
+package com.gephub.common.security;
+
+import com.gephub.common.http.OutboundHttpClient;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * JWK set fetched from the auth-service and refreshed in the background before it goes stale: at
+ * {@code refreshAhead} of the response's {@code max-age}, and shortly before the rollover announced in
+ * {@link #NEXT_ROLLOVER_HEADER}, by which time the auth-service already publishes the incoming key. Refreshes
+ * are conditional on the ETag. A token with an unknown {@code kid} triggers one fetch that concurrent requests
+ * share, at most once per {@code minKidMissInterval} unless the set was fetched before a rollover that has since
+ * passed. When the auth-service is unreachable the last good set keeps being served.
+ */
+public class RefreshingJwkSource implements JWKSource<SecurityContext>, AutoCloseable {
+    public static final String NEXT_ROLLOVER_HEADER = "X-Gephub-Jwks-Next-Rollover";
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshingJwkSource.class);
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final long MIN_REFRESH_MILLIS = 5_000;
+    private static final long MAX_RETRY_MILLIS = 60_000;
+    private static final long ROLLOVER_MARGIN_MILLIS = 30_000;
+
+    private final URI uri;
+    private final OutboundHttpClient.Destination http;
+    private final Duration defaultMaxAge;
+    private final double refreshAhead;
+    private final long minKidMissIntervalMillis;
+    private final ScheduledExecutorService scheduler;
+    private final List<Consumer<JWKSet>> listeners = new CopyOnWriteArrayList<>();
+    private final Timer fetchUpdated;
+    private final Timer fetchNotModified;
+    private final Timer fetchFailed;
+    private final Counter kidMisses;
+    private volatile Snapshot snapshot;
+    private volatile CompletableFuture<Snapshot> inFlight;
+    private volatile long lastFetchStartedAt;
+    private volatile long rolloverAt = Long.MAX_VALUE;
+    private ScheduledFuture<?> nextRefresh;
+    private long retryMillis = MIN_REFRESH_MILLIS;
+
+    private record Snapshot(JWKSet keys, String etag, long fetchedAt) {}
+
+    public RefreshingJwkSource(String jwksUri, OutboundHttpClient http, Duration defaultMaxAge, double refreshAhead, Duration minKidMissInterval,
+                               MeterRegistry meterRegistry) {
+        this.uri = URI.create(jwksUri);
+        this.http = http.destination("jwks", Duration.ofSeconds(5));
+        this.defaultMaxAge = defaultMaxAge;
+        this.refreshAhead = refreshAhead;
+        this.minKidMissIntervalMillis = minKidMissInterval.toMillis();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jwks-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        this.fetchUpdated = fetchTimer(meterRegistry, "updated");
+        this.fetchNotModified = fetchTimer(meterRegistry, "not_modified");
+        this.fetchFailed = fetchTimer(meterRegistry, "error");
+        this.kidMisses = Counter.builder("gephub.jwks.kid.misses").register(meterRegistry);
+        Gauge.builder("gephub.jwks.age", this, s -> s.snapshot == null ? Double.NaN : (System.currentTimeMillis() - s.snapshot.fetchedAt()) / 1000.0)
+            .baseUnit("seconds").register(meterRegistry);
+        scheduler.execute(() -> refresh(false));
+    }
+
+    /**
+     * Called with the new set whenever a refresh changes it.
+     */
+    public void onChange(Consumer<JWKSet> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector selector, SecurityContext context) throws KeySourceException {
+        Snapshot s = snapshot;
+        if (s == null) s = awaitFetch(fetch());
+        List<JWK> keys = selector.select(s.keys());
+        if (!keys.isEmpty() || !unknownKeyId(selector.getMatcher(), s.keys())) return keys;
+        kidMisses.increment();
+        CompletableFuture<Snapshot> f = inFlight;
+        if (f == null) {
+            long now = System.currentTimeMillis();
+            boolean missedRollover = lastFetchStartedAt < rolloverAt && now >= rolloverAt;
+            if (!missedRollover && now - lastFetchStartedAt < minKidMissIntervalMillis) return keys;
+            f = fetch();
+        }
+        return selector.select(awaitFetch(f).keys());
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private static boolean unknownKeyId(JWKMatcher matcher, JWKSet keys) {
+        Set<String> kids = matcher.getKeyIDs();
+        if (kids == null || kids.isEmpty()) return false;
+        for (String kid : kids) {
+            if (kid != null && keys.getKeyByKeyId(kid) == null) return true;
+        }
+        return false;
+    }
+
+    private Snapshot awaitFetch(CompletableFuture<Snapshot> f) throws KeySourceException {
+        try {
+            return f.get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            Snapshot s = snapshot;
+            if (s != null) return s;
+            throw new KeySourceException("Couldn't retrieve JWK set from " + uri, e);
+        }
+    }
+
+    /**
+     * Starts a fetch, or joins the one already running.
+     */
+    private synchronized CompletableFuture<Snapshot> fetch() {
+        CompletableFuture<Snapshot> f = inFlight;
+        if (f != null) return f;
+        CompletableFuture<Snapshot> started = new CompletableFuture<>();
+        inFlight = started;
+        lastFetchStartedAt = System.currentTimeMillis();
+        scheduler.execute(() -> refresh(true));
+        return started;
+    }
+
+    private void refresh(boolean requested) {
+        CompletableFuture<Snapshot> waiting;
+        synchronized (this) {
+            if (!requested && inFlight != null) return;
+            if (inFlight == null) {
+                inFlight = new CompletableFuture<>();
+                lastFetchStartedAt = System.currentTimeMillis();
+            }
+            waiting = inFlight;
+        }
+        long started = System.nanoTime();
+        long delay;
+        try {
+            Snapshot previous = snapshot;
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri).GET();
+            if (previous != null && previous.etag() != null) request.header("If-None-Match", previous.etag());
+            HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            long now = System.currentTimeMillis();
+            Snapshot next;
+            if (response.statusCode() == 304 && previous != null) {
+                next = new Snapshot(previous.keys(), previous.etag(), now);
+                fetchNotModified.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            } else if (response.statusCode() == 200) {
+                next = new Snapshot(JWKSet.parse(response.body()), response.headers().firstValue("ETag").orElse(null), now);
+                fetchUpdated.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            } else {
+                throw new IllegalStateException("HTTP " + response.statusCode());
+            }
+            snapshot = next;
+            retryMillis = MIN_REFRESH_MILLIS;
+            delay = nextRefreshDelay(response, now);
+            waiting.complete(next);
+            if (previous == null || !kids(previous.keys()).equals(kids(next.keys()))) {
+                for (Consumer<JWKSet> l : listeners) {
+                    try {
+                        l.accept(next.keys());
+                    } catch (RuntimeException e) {
+                        log.warn("JWK set listener failed: {}", e.getMessage());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            fetchFailed.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (e instanceof InterruptedException) Thread.currentThread().interrupt();
+            log.warn("JWK set refresh from {} failed, {}: {}", uri, snapshot == null ? "no keys yet" : "keeping the last good set", e.getMessage());
+            delay = retryMillis;
+            retryMillis = Math.min(MAX_RETRY_MILLIS, retryMillis * 2);
+            waiting.completeExceptionally(e);
+        } finally {
+            synchronized (this) {
+                if (inFlight == waiting) inFlight = null;
+            }
+        }
+        synchronized (this) {
+            if (nextRefresh != null) nextRefresh.cancel(false);
+            if (!scheduler.isShutdown()) nextRefresh = scheduler.schedule(() -> refresh(false), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private long nextRefreshDelay(HttpResponse<?> response, long now) {
+        long maxAgeMillis = defaultMaxAge.toMillis();
+        Matcher m = MAX_AGE.matcher(response.headers().firstValue("Cache-Control").orElse(""));
+        if (m.find()) maxAgeMillis = Long.parseLong(m.group(1)) * 1000;
+        long delay = (long) (maxAgeMillis * refreshAhead);
+        long rollover = Long.MAX_VALUE;
+        try {
+            String header = response.headers().firstValue(NEXT_ROLLOVER_HEADER).orElse(null);
+            if (header != null) rollover = Long.parseLong(header.trim()) * 1000;
+        } catch (NumberFormatException ignored) {
+            // no rollover to prepare for
+        }
+        rolloverAt = rollover;
+        // Once inside the margin this fetch already saw the incoming key, so only the max-age applies.
+        if (rollover != Long.MAX_VALUE && now < rollover - ROLLOVER_MARGIN_MILLIS) {
+            delay = Math.min(delay, rollover - ROLLOVER_MARGIN_MILLIS - now);
+        }
+        return Math.max(MIN_REFRESH_MILLIS, delay);
+    }
+
+    private static Set<String> kids(JWKSet keys) {
+        return keys.getKeys().stream().map(JWK::getKeyID).collect(Collectors.toSet());
+    }
+
+    private static Timer fetchTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("gephub.jwks.fetch").tag("outcome", outcome).register(registry);
+    }
+}
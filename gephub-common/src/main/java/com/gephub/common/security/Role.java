@@ -0,0 +1,26 @@
+package com.gephub.common.security;
+
+/**
+ * Organization roles carried in the {@code role} claim, from most to least privileged.
+ */
+public enum Role {
+    OWNER,
+    ADMIN,
+    DEV,
+    READONLY;
+
+    public boolean atLeast(Role required) {
+        return ordinal() <= required.ordinal();
+    }
+
+    /**
+     * Case-insensitive lookup; null for a missing or unknown role.
+     */
+    public static Role parse(String value) {
+        if (value == null) return null;
+        for (Role r : values()) {
+            if (r.name().equalsIgnoreCase(value)) return r;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,136 @@
+package com.gephub.common.security;
+
+import com.gephub.common.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidatorResult;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory denylist of access tokens revoked by the auth-service, checked during JWT validation. A
+ * Bloom filter answers the common "not revoked" case without touching the exact maps. Loaded from the
+ * auth-service snapshot on startup and every {@code reloadInterval}, and kept current by its pub/sub broadcasts.
+ */
+public class TokenRevocationList implements OAuth2TokenValidator<Jwt>, MessageListener, AutoCloseable {
+    public static final String CHANNEL = "gephub:jwt:revocations";
+    public static final String SNAPSHOT_KEY = "gephub:jwt:revoked";
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+    private static final int BLOOM_HASHES = 4;
+    private static final OAuth2Error REVOKED = new OAuth2Error("invalid_token", "Token has been revoked", null);
+
+    private final StringRedisTemplate redis;
+    private final int bloomBits;
+    private final ScheduledExecutorService scheduler;
+    private volatile State state;
+
+    private record SubjectEntry(long notBefore, long expiresAt) {}
+
+    private record State(BloomFilter bloom, Map<String, SubjectEntry> subjects, Map<String, Long> tokenIds) {}
+
+    public TokenRevocationList(StringRedisTemplate redis, int bloomBits, Duration reloadInterval) {
+        this.redis = redis;
+        this.bloomBits = Math.max(64, bloomBits);
+        this.state = newState();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jwt-revocation-reload");
+            t.setDaemon(true);
+            return t;
+        });
+        reload();
+        long millis = reloadInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::reload, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public OAuth2TokenValidatorResult validate(Jwt jwt) {
+        return isRevoked(jwt) ? OAuth2TokenValidatorResult.failure(REVOKED) : OAuth2TokenValidatorResult.success();
+    }
+
+    public boolean isRevoked(Jwt jwt) {
+        State s = state;
+        String sub = jwt.getSubject();
+        if (sub != null && s.bloom().mightContain("s:" + sub)) {
+            SubjectEntry e = s.subjects().get(sub);
+            Instant iat = jwt.getIssuedAt();
+            if (e != null && (iat == null || iat.getEpochSecond() < e.notBefore())) return true;
+        }
+        String jti = jwt.getId();
+        return jti != null && s.bloom().mightContain("j:" + jti) && s.tokenIds().containsKey(jti);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int i = body.indexOf('|');
+        try {
+            synchronized (this) {
+                apply(state, body.substring(i + 1), Long.parseLong(body.substring(0, i)));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed revocation {}: {}", body, e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the denylist from the snapshot, which also drops expired entries and resets the filter.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        try {
+            long now = System.currentTimeMillis() / 1000;
+            Set<ZSetOperations.TypedTuple<String>> entries = redis.opsForZSet().rangeByScoreWithScores(SNAPSHOT_KEY, now, Double.POSITIVE_INFINITY);
+            State fresh = newState();
+            if (entries != null) {
+                for (ZSetOperations.TypedTuple<String> t : entries) {
+                    if (t.getValue() != null && t.getScore() != null) apply(fresh, t.getValue(), t.getScore().longValue());
+                }
+            }
+            state = fresh;
+        } catch (Exception e) {
+            log.warn("Failed to load token revocation snapshot, keeping {} subjects and {} token ids: {}",
+                state.subjects().size(), state.tokenIds().size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void apply(State s, String member, long expiresAt) {
+        String[] parts = member.split("\\|");
+        if (parts.length == 3 && parts[0].equals("sub")) {
+            SubjectEntry entry = new SubjectEntry(Long.parseLong(parts[2]), expiresAt);
+            s.subjects().merge(parts[1], entry, (a, b) -> new SubjectEntry(Math.max(a.notBefore(), b.notBefore()), Math.max(a.expiresAt(), b.expiresAt())));
+            s.bloom().add("s:" + parts[1]);
+        } else if (parts.length == 2 && parts[0].equals("jti")) {
+            s.tokenIds().merge(parts[1], expiresAt, Math::max);
+            s.bloom().add("j:" + parts[1]);
+        } else {
+            throw new IllegalArgumentException("unknown revocation type");
+        }
+    }
+
+    private State newState() {
+        return new State(new BloomFilter(bloomBits, BLOOM_HASHES), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+}
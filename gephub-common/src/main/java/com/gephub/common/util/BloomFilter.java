@@ -0,0 +1,56 @@
+package com.gephub.common.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings: {@link #mightContain} is false only for values never added. Probes use
+ * double hashing over a 64-bit FNV-1a hash with a murmur finalizer; bits are set with a lock-free OR, so adds
+ * may run concurrently with lookups.
+ */
+public final class BloomFilter {
+    private final AtomicLongArray words;
+    private final int hashes;
+
+    /**
+     * A filter of at least {@code bits} bits, rounded up to whole 64-bit words, probing {@code hashes} bits per value.
+     */
+    public BloomFilter(long bits, int hashes) {
+        this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE / 64, Math.max(1, (bits + 63) / 64)));
+        this.hashes = hashes;
+    }
+
+    public void add(String value) {
+        long h = hash(value);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        int bits = words.length() * 64;
+        for (int k = 0; k < hashes; k++) {
+            int bit = Math.floorMod(h1 + k * h2, bits);
+            words.getAndAccumulate(bit >>> 6, 1L << bit, (cur, mask) -> cur | mask);
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long h = hash(value);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        int bits = words.length() * 64;
+        for (int k = 0; k < hashes; k++) {
+            int bit = Math.floorMod(h1 + k * h2, bits);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,34 @@
+package com.gephub.common.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Provides {@link KeysetPagination} to services with a database.
+ */
+@AutoConfiguration(after = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class, JacksonAutoConfiguration.class})
+@ConditionalOnClass(JdbcTemplate.class)
+@ConditionalOnBean({DataSource.class, PlatformTransactionManager.class})
+public class GephubPaginationAutoConfiguration {
+    @Bean
+    @ConditionalOnMissingBean
+    public KeysetPagination keysetPagination(DataSource dataSource, PlatformTransactionManager transactionManager, ObjectMapper json,
+                                             @Value("${gephub.pagination.defaultLimit:50}") int defaultLimit,
+                                             @Value("${gephub.pagination.maxLimit:500}") int maxLimit,
+                                             @Value("${gephub.pagination.fetchSize:500}") int fetchSize) {
+        return new KeysetPagination(dataSource, transactionManager, json, defaultLimit, maxLimit, fetchSize);
+    }
+}
@@ -0,0 +1,9 @@
+package com.gephub.common.web;
+
+import java.util.List;
+
+/**
+ * One page of a list. {@code nextCursor} is passed back as {@code cursor} to get the following page and is
+ * null on the last one.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {}
@@ -0,0 +1,155 @@
+package com.gephub.common.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs {@link KeysetQuery} list queries either as pages of at most {@code maxLimit} rows with an opaque cursor,
+ * or, when the client accepts {@link #NDJSON}, as a stream of newline-delimited JSON read through a JDBC cursor
+ * of {@code fetchSize} rows, so exports never hold the full result in memory.
+ */
+public class KeysetPagination {
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int FLUSH_EVERY = 100;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readOnly;
+    private final ObjectMapper json;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public static class InvalidCursorException extends IllegalArgumentException {
+        public InvalidCursorException() {
+            super("Invalid cursor");
+        }
+    }
+
+    private record Cursor(OffsetDateTime createdAt, UUID id) {}
+
+    public KeysetPagination(DataSource dataSource, PlatformTransactionManager transactionManager, ObjectMapper json,
+                            int defaultLimit, int maxLimit, int fetchSize) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(fetchSize);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.json = json;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * A {@link KeysetPage} as JSON, or every row from {@code cursor} on as NDJSON when {@code accept} asks for it.
+     */
+    public <T> ResponseEntity<?> respond(KeysetQuery<T> query, String accept, String cursor, Integer limit) {
+        if (accept != null && MediaType.parseMediaTypes(accept).stream().anyMatch(NDJSON::equalsTypeAndSubtype)) {
+            return ResponseEntity.ok().contentType(NDJSON).body(stream(query, cursor));
+        }
+        return ResponseEntity.ok(page(query, cursor, limit));
+    }
+
+    public <T> KeysetPage<T> page(KeysetQuery<T> query, String cursor, Integer limit) {
+        int size = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+        List<T> items = new ArrayList<>(Math.min(size, 64));
+        Cursor[] last = new Cursor[1];
+        jdbc.query(sql(query, cursor != null, true), rs -> {
+            if (items.size() == size) {
+                items.add(null);
+                return;
+            }
+            items.add(query.mapper().mapRow(rs, items.size()));
+            last[0] = new Cursor(rs.getObject("created_at", OffsetDateTime.class), rs.getObject("id", UUID.class));
+        }, args(query, cursor, size + 1));
+        if (items.size() > size) {
+            items.remove(size);
+            return new KeysetPage<>(items, encode(last[0]));
+        }
+        return new KeysetPage<>(items, null);
+    }
+
+    public <T> StreamingResponseBody stream(KeysetQuery<T> query, String cursor) {
+        String sql = sql(query, cursor != null, false);
+        Object[] args = args(query, cursor, 0);
+        return out -> readOnly.executeWithoutResult(status -> {
+            try (JsonGenerator gen = json.getFactory().createGenerator(out)) {
+                gen.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                int[] rows = new int[1];
+                jdbc.query(sql, rs -> {
+                    try {
+                        gen.writeObject(query.mapper().mapRow(rs, rows[0]));
+                        gen.writeRaw('\n');
+                        if (++rows[0] % FLUSH_EVERY == 0) gen.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, args);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static String sql(KeysetQuery<?> query, boolean after, boolean limited) {
+        String direction = query.ascending() ? "ASC" : "DESC";
+        StringBuilder sql = new StringBuilder(query.sql());
+        if (after) {
+            sql.append(" AND (").append(query.createdAtColumn()).append(", ").append(query.idColumn()).append(") ")
+                .append(query.ascending() ? ">" : "<").append(" (?, ?)");
+        }
+        sql.append(" ORDER BY ").append(query.createdAtColumn()).append(' ').append(direction)
+            .append(", ").append(query.idColumn()).append(' ').append(direction);
+        if (limited) sql.append(" LIMIT ?");
+        return sql.toString();
+    }
+
+    private static Object[] args(KeysetQuery<?> query, String cursor, int limit) {
+        List<Object> args = new ArrayList<>(Arrays.asList(query.args()));
+        if (cursor != null) {
+            Cursor c = decode(cursor);
+            args.add(c.createdAt());
+            args.add(c.id());
+        }
+        if (limit > 0) args.add(limit);
+        return args.toArray();
+    }
+
+    private static String encode(Cursor c) {
+        Instant at = c.createdAt().toInstant();
+        long micros = at.getEpochSecond() * 1_000_000 + at.getNano() / 1_000;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((micros + "_" + c.id()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('_');
+            long micros = Long.parseLong(raw.substring(0, sep));
+            Instant at = Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000), Math.floorMod(micros, 1_000_000) * 1_000L);
+            return new Cursor(at.atOffset(ZoneOffset.UTC), UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.gephub.common.web;
+
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * A list query paged by keyset on {@code (created_at, id)}. {@code sql} is a {@code SELECT ... WHERE ...} without
+ * ORDER BY or LIMIT, whose result includes columns labelled {@code created_at} and {@code id};
+ * {@code createdAtColumn} and {@code idColumn} are the same columns as written in the WHERE clause. The table needs
+ * an index on the WHERE clause's equality columns followed by {@code (created_at, id)}.
+ */
+public record KeysetQuery<T>(String sql, String createdAtColumn, String idColumn, boolean ascending, RowMapper<T> mapper, Object... args) {
+    public static <T> KeysetQuery<T> newestFirst(String sql, String createdAtColumn, String idColumn, RowMapper<T> mapper, Object... args) {
+        return new KeysetQuery<>(sql, createdAtColumn, idColumn, false, mapper, args);
+    }
+
+    public static <T> KeysetQuery<T> oldestFirst(String sql, String createdAtColumn, String idColumn, RowMapper<T> mapper, Object... args) {
+        return new KeysetQuery<>(sql, createdAtColumn, idColumn, true, mapper, args);
+    }
+}
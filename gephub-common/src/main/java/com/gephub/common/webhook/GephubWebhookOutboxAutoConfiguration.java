@@ -0,0 +1,40 @@
+package com.gephub.common.webhook;
+
+import com.gephub.common.http.GephubHttpClientAutoConfiguration;
+import com.gephub.common.http.OutboundHttpClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Provides the {@link WebhookOutbox} to services that declare a {@link WebhookSigner}.
+ */
+@AutoConfiguration(after = {DataSourceAutoConfiguration.class, GephubHttpClientAutoConfiguration.class})
+@ConditionalOnBean({WebhookSigner.class, DataSource.class})
+public class GephubWebhookOutboxAutoConfiguration {
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public WebhookOutbox webhookOutbox(DataSource dataSource, OutboundHttpClient http, WebhookSigner signer, MeterRegistry meterRegistry,
+                                       @Value("${gephub.webhooks.timeoutMs:5000}") long timeoutMs,
+                                       @Value("${gephub.webhooks.outbox.batchSize:50}") int batchSize,
+                                       @Value("${gephub.webhooks.outbox.maxInFlight:64}") int maxInFlight,
+                                       @Value("${gephub.webhooks.outbox.maxPerEndpoint:4}") int maxPerEndpoint,
+                                       @Value("${gephub.webhooks.outbox.maxAttempts:12}") int maxAttempts,
+                                       @Value("${gephub.webhooks.outbox.leaseSeconds:120}") long leaseSeconds,
+                                       @Value("${gephub.webhooks.outbox.backoffBaseSeconds:10}") long backoffBaseSeconds,
+                                       @Value("${gephub.webhooks.outbox.backoffMaxSeconds:21600}") long backoffMaxSeconds,
+                                       @Value("${gephub.webhooks.outbox.pollIntervalMs:1000}") long pollIntervalMs,
+                                       @Value("${gephub.webhooks.outbox.retentionHours:168}") long retentionHours) {
+        WebhookOutbox.Settings settings = new WebhookOutbox.Settings(batchSize, maxInFlight, maxPerEndpoint, maxAttempts,
+            Duration.ofSeconds(leaseSeconds), Duration.ofSeconds(backoffBaseSeconds), Duration.ofSeconds(backoffMaxSeconds),
+            Duration.ofMillis(pollIntervalMs), Duration.ofHours(retentionHours));
+        return new WebhookOutbox(dataSource, http.destination("webhooks", Duration.ofMillis(timeoutMs)), signer, meterRegistry, settings);
+    }
+}
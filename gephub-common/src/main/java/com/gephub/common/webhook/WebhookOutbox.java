@@ -0,0 +1,261 @@
+package com.gephub.common.webhook;
+
+import com.gephub.common.http.OutboundHttpClient;
+import com.gephub.common.id.UuidV7;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Webhook deliveries through the {@code webhook_outbox} table. {@link #enqueue} inserts a row in the caller's
+ * transaction, so the event commits or rolls back with the state change that caused it. A dispatcher thread claims
+ * due rows in batches with {@code FOR UPDATE SKIP LOCKED}, so every node can run one, and leases them by pushing
+ * {@code next_attempt_at} forward; a node that dies mid-delivery leaves its rows to be claimed again when the lease
+ * runs out. Deliveries run concurrently, at most {@code maxPerEndpoint} per endpoint and {@code maxInFlight} in
+ * total. Failures are retried with exponential backoff and jitter, and after {@code maxAttempts} the row is left
+ * {@code dead} for an operator. Only a 2xx response counts as delivered; redirects are not followed and are retried
+ * like any other failure. Delivery is at least once; receivers can dedupe on {@link #DELIVERY_HEADER}.
+ */
+public class WebhookOutbox implements AutoCloseable {
+    public static final String SIGNATURE_HEADER = "X-Gephub-Signature";
+    public static final String DELIVERY_HEADER = "X-Gephub-Delivery";
+    public static final String EVENT_HEADER = "X-Gephub-Event";
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookOutbox.class);
+
+    private static final String CLAIM = """
+        WITH due AS (
+            SELECT id FROM webhook_outbox
+            WHERE status = 'pending' AND next_attempt_at <= now() AND NOT (endpoint_id = ANY (?))
+            ORDER BY next_attempt_at
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+        ), claimed AS (
+            UPDATE webhook_outbox o SET next_attempt_at = now() + make_interval(secs => ?), attempts = o.attempts + 1
+            FROM due WHERE o.id = due.id
+            RETURNING o.id, o.endpoint_id, o.event_type, o.payload, o.attempts, o.created_at
+        )
+        SELECT c.id, c.endpoint_id, c.event_type, c.payload, c.attempts, c.created_at, e.url, e.secret
+        FROM claimed c LEFT JOIN webhook_endpoints e ON e.id = c.endpoint_id AND e.is_active
+        """;
+
+    private final JdbcTemplate jdbc;
+    private final OutboundHttpClient.Destination http;
+    private final WebhookSigner signer;
+    private final MeterRegistry meterRegistry;
+    private final Settings settings;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<UUID, AtomicInteger> perEndpoint = new ConcurrentHashMap<>();
+    private volatile boolean backlogged;
+
+    public record Settings(int batchSize, int maxInFlight, int maxPerEndpoint, int maxAttempts, Duration lease,
+                           Duration backoffBase, Duration backoffMax, Duration pollInterval, Duration retention) {}
+
+    private record Claimed(UUID id, UUID endpointId, String eventType, String payload, int attempts, OffsetDateTime createdAt,
+                           String url, String secret) {}
+
+    public WebhookOutbox(DataSource dataSource, OutboundHttpClient.Destination http, WebhookSigner signer, MeterRegistry meterRegistry,
+                         Settings settings) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.http = http;
+        this.signer = signer;
+        this.meterRegistry = meterRegistry;
+        this.settings = settings;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "webhook-outbox");
+            t.setDaemon(true);
+            return t;
+        });
+        Gauge.builder("gephub.webhooks.outbox.inflight", inFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Queues {@code payload} for one endpoint. Dispatch starts as soon as the surrounding transaction commits.
+     */
+    public void enqueue(UUID endpointId, String eventType, String payload) {
+        jdbc.update("INSERT INTO webhook_outbox (id, endpoint_id, event_type, payload) VALUES (?, ?, ?, ?)",
+            UuidV7.next(), endpointId, eventType, payload);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wake();
+                }
+            });
+        } else {
+            wake();
+        }
+    }
+
+    public void start() {
+        long poll = settings.pollInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::dispatch, poll, poll, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::purge, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void wake() {
+        if (!scheduler.isShutdown()) scheduler.execute(this::dispatch);
+    }
+
+    /**
+     * Claims and starts due deliveries until the backlog or the free capacity runs out. Runs on the scheduler thread only.
+     */
+    private void dispatch() {
+        try {
+            while (true) {
+                int free = settings.maxInFlight() - inFlight.get();
+                backlogged = free <= 0;
+                if (backlogged) return;
+                int limit = Math.min(free, settings.batchSize());
+                List<Claimed> batch = claim(limit);
+                List<UUID> overflow = new ArrayList<>();
+                for (Claimed c : batch) {
+                    AtomicInteger lane = perEndpoint.computeIfAbsent(c.endpointId(), k -> new AtomicInteger());
+                    if (lane.get() >= settings.maxPerEndpoint()) {
+                        overflow.add(c.id());
+                        continue;
+                    }
+                    lane.incrementAndGet();
+                    inFlight.incrementAndGet();
+                    deliver(c, lane);
+                }
+                if (!overflow.isEmpty()) {
+                    jdbc.update("UPDATE webhook_outbox SET next_attempt_at = now(), attempts = attempts - 1 WHERE id = ANY (?)",
+                        ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", overflow.toArray())));
+                    return;
+                }
+                if (batch.size() < limit) return;
+            }
+        } catch (Exception e) {
+            log.warn("Webhook outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    private List<Claimed> claim(int limit) {
+        Object[] saturated = perEndpoint.entrySet().stream()
+            .filter(e -> e.getValue().get() >= settings.maxPerEndpoint())
+            .map(Map.Entry::getKey)
+            .toArray();
+        return jdbc.query(con -> {
+            PreparedStatement ps = con.prepareStatement(CLAIM);
+            ps.setArray(1, con.createArrayOf("uuid", saturated));
+            ps.setInt(2, limit);
+            ps.setDouble(3, settings.lease().toMillis() / 1000.0);
+            return ps;
+        }, (rs, i) -> new Claimed(rs.getObject("id", UUID.class), rs.getObject("endpoint_id", UUID.class), rs.getString("event_type"),
+            rs.getString("payload"), rs.getInt("attempts"), rs.getObject("created_at", OffsetDateTime.class),
+            rs.getString("url"), rs.getString("secret")));
+    }
+
+    private void deliver(Claimed c, AtomicInteger lane) {
+        long started = System.nanoTime();
+        try {
+            if (c.url() == null) throw new IllegalStateException("Endpoint removed or deactivated");
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(c.url()))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(DELIVERY_HEADER, c.id().toString())
+                .header(EVENT_HEADER, c.eventType())
+                .POST(HttpRequest.BodyPublishers.ofString(c.payload()));
+            String signature = c.secret() == null ? null : signer.sign(c.secret(), c.payload());
+            if (signature != null) request.header(SIGNATURE_HEADER, signature);
+            http.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> finish(c, lane, started, response,
+                    response != null ? "HTTP " + response.statusCode() : String.valueOf(error.getMessage()), true));
+        } catch (RuntimeException e) {
+            finish(c, lane, started, null, e.getMessage(), false);
+        }
+    }
+
+    /**
+     * Records the result of one attempt. Claiming a row counts the attempt, and these updates only apply while the
+     * row still carries that count, so a delivery that outlived its lease can't overwrite the result of the node
+     * that claimed the row again.
+     */
+    private void finish(Claimed c, AtomicInteger lane, long startedNanos, HttpResponse<?> response, String error, boolean retryable) {
+        lane.decrementAndGet();
+        inFlight.decrementAndGet();
+        String outcome = outcome(response);
+        meterRegistry.timer("gephub.webhooks.delivery", "event", c.eventType(), "outcome", outcome)
+            .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+        Integer status = response == null ? null : response.statusCode();
+        int attempts = c.attempts();
+        try {
+            if ("success".equals(outcome)) {
+                if (jdbc.update("UPDATE webhook_outbox SET status = 'delivered', last_status = ?, last_error = NULL, delivered_at = now() WHERE id = ? AND attempts = ?",
+                    status, c.id(), attempts) == 1) {
+                    meterRegistry.timer("gephub.webhooks.outbox.lag", "event", c.eventType())
+                        .record(Duration.between(c.createdAt(), OffsetDateTime.now()));
+                }
+            } else if (!retryable || attempts >= settings.maxAttempts()) {
+                if (jdbc.update("UPDATE webhook_outbox SET status = 'dead', last_status = ?, last_error = ? WHERE id = ? AND attempts = ?",
+                    status, error, c.id(), attempts) == 1) {
+                    meterRegistry.counter("gephub.webhooks.outbox.dead", "event", c.eventType()).increment();
+                    log.warn("Webhook {} to endpoint {} given up after {} attempts: {}", c.id(), c.endpointId(), attempts, error);
+                }
+            } else {
+                jdbc.update("UPDATE webhook_outbox SET last_status = ?, last_error = ?, next_attempt_at = now() + make_interval(secs => ?) WHERE id = ? AND attempts = ?",
+                    status, error, backoff(attempts).toMillis() / 1000.0, c.id(), attempts);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to record webhook {} result, it will be retried after its lease: {}", c.id(), e.getMessage());
+        }
+        if (backlogged) wake();
+    }
+
+    /**
+     * Full-jitter exponential backoff: somewhere between half and all of {@code base * 2^(attempts - 1)}, capped at {@code backoffMax}.
+     */
+    private Duration backoff(int attempts) {
+        long base = settings.backoffBase().toMillis();
+        long max = settings.backoffMax().toMillis();
+        long delay = attempts > 30 ? max : Math.min(max, base << (attempts - 1));
+        return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+
+    private void purge() {
+        try {
+            jdbc.update("DELETE FROM webhook_outbox WHERE status = 'delivered' AND delivered_at < now() - make_interval(secs => ?)",
+                (double) settings.retention().toSeconds());
+        } catch (Exception e) {
+            log.warn("Failed to purge delivered webhooks: {}", e.getMessage());
+        }
+    }
+
+    private static String outcome(HttpResponse<?> response) {
+        if (response == null) return "error";
+        if (response.statusCode() >= 500) return "server_error";
+        if (response.statusCode() >= 400) return "client_error";
+        if (response.statusCode() >= 300) return "redirect";
+        return "success";
+    }
+}
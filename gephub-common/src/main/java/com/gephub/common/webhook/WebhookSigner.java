@@ -0,0 +1,12 @@
+package com.gephub.common.webhook;
+
+/**
+ * Signs a webhook body with its endpoint's secret. Declaring one as a bean turns on the {@link WebhookOutbox}.
+ */
+@FunctionalInterface
+public interface WebhookSigner {
+    /**
+     * Value of {@link WebhookOutbox#SIGNATURE_HEADER}, or {@code null} to send the body unsigned.
+     */
+    String sign(String secret, String body);
+}
@@ -0,0 +1,163 @@
+package com.gephub.common.http;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The per-host limit: with one connection per host, a finished request hands its slot to the longest-waiting one,
+ * a cancelled or timed-out waiter gives up its place without leaking the slot, and the queue is bounded. The
+ * receiver is a local server whose responses are held until the test releases them.
+ */
+class OutboundHttpClientTest {
+    private HttpServer server;
+    private final Semaphore respond = new Semaphore(0);
+    private final AtomicInteger received = new AtomicInteger();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private SimpleMeterRegistry meters;
+    private OutboundHttpClient client;
+    private URI uri;
+
+    @BeforeEach
+    void start() throws Exception {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            received.incrementAndGet();
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                respond.tryAcquire(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            concurrent.decrementAndGet();
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+        uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+        meters = new SimpleMeterRegistry();
+        client = new OutboundHttpClient(Duration.ofSeconds(5), HttpClient.Version.HTTP_1_1, 1, 2, meters);
+    }
+
+    @AfterEach
+    void stop() {
+        respond.release(100);
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void releasedSlotGoesToTheLongestWaitingRequest() throws Exception {
+        OutboundHttpClient.Destination d = client.destination("test", Duration.ofSeconds(5));
+        CompletableFuture<HttpResponse<Void>> first = send(d);
+        awaitReceived(1);
+        CompletableFuture<HttpResponse<Void>> second = send(d);
+        CompletableFuture<HttpResponse<Void>> third = send(d);
+        assertEquals(2.0, pending("test"));
+        assertEquals(1, received.get(), "queued requests must not reach the host");
+
+        respond.release();
+        assertEquals(204, first.get(5, TimeUnit.SECONDS).statusCode());
+        awaitReceived(2);
+        assertFalse(third.isDone());
+        respond.release(2);
+        assertEquals(204, second.get(5, TimeUnit.SECONDS).statusCode());
+        assertEquals(204, third.get(5, TimeUnit.SECONDS).statusCode());
+        assertEquals(1, maxConcurrent.get());
+        assertEquals(0.0, pending("test"));
+    }
+
+    @Test
+    void cancelledWaiterGivesUpItsPlace() throws Exception {
+        OutboundHttpClient.Destination d = client.destination("test", Duration.ofSeconds(5));
+        CompletableFuture<HttpResponse<Void>> first = send(d);
+        awaitReceived(1);
+        CompletableFuture<HttpResponse<Void>> cancelled = send(d);
+        CompletableFuture<HttpResponse<Void>> next = send(d);
+        assertTrue(cancelled.cancel(false));
+        assertEquals(1.0, pending("test"));
+
+        respond.release(2);
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(204, next.get(5, TimeUnit.SECONDS).statusCode());
+        assertEquals(2, received.get(), "the cancelled request is never sent");
+
+        // The slot is free again rather than leaked to the cancelled waiter.
+        respond.release();
+        assertEquals(204, send(d).get(5, TimeUnit.SECONDS).statusCode());
+    }
+
+    @Test
+    void waiterThatTimesOutInTheQueueFailsAndLeavesIt() throws Exception {
+        OutboundHttpClient.Destination d = client.destination("test", Duration.ofSeconds(5));
+        CompletableFuture<HttpResponse<Void>> first = send(d);
+        awaitReceived(1);
+        CompletableFuture<HttpResponse<Void>> queued = d.sendAsync(HttpRequest.newBuilder(uri).timeout(Duration.ofMillis(200)).build(),
+            HttpResponse.BodyHandlers.discarding());
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(HttpTimeoutException.class, e.getCause());
+        // The waiter leaves the queue right after its future fails, on the timer thread.
+        awaitPending("test", 0.0);
+        respond.release();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(1, received.get());
+    }
+
+    @Test
+    void requestsBeyondThePendingLimitAreRejected() throws Exception {
+        OutboundHttpClient.Destination d = client.destination("test", Duration.ofSeconds(5));
+        send(d);
+        awaitReceived(1);
+        send(d);
+        send(d);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> send(d).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+    }
+
+    private CompletableFuture<HttpResponse<Void>> send(OutboundHttpClient.Destination d) {
+        return d.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private double pending(String destination) {
+        return meters.get("gephub.http.client.pending").tag("destination", destination).gauge().value();
+    }
+
+    private void awaitPending(String destination, double n) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pending(destination) != n && System.nanoTime() < deadline) Thread.sleep(5);
+        assertEquals(n, pending(destination));
+    }
+
+    private void awaitReceived(int n) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (received.get() < n && System.nanoTime() < deadline) Thread.sleep(5);
+        assertEquals(n, received.get());
+    }
+}
@@ -0,0 +1,86 @@
+package com.gephub.common.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ids must sort in generation order, byte for byte as Postgres compares {@code uuid}, even when far more than
+ * one is generated per millisecond and from many threads at once.
+ */
+class UuidV7Test {
+    @Test
+    void idsFromOneThreadStrictlyIncrease() {
+        UUID prev = UuidV7.next();
+        for (int i = 0; i < 200_000; i++) {
+            UUID next = UuidV7.next();
+            assertTrue(compareUnsigned(prev, next) < 0, prev + " !< " + next);
+            prev = next;
+        }
+    }
+
+    @Test
+    void idsFromConcurrentThreadsAreUniqueAndIncreasingPerThread() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        ConcurrentLinkedQueue<UUID> all = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+        for (int t = 0; t < threads; t++) {
+            Thread w = new Thread(() -> {
+                try {
+                    start.await();
+                    UUID prev = null;
+                    for (int i = 0; i < perThread; i++) {
+                        UUID id = UuidV7.next();
+                        if (prev != null && compareUnsigned(prev, id) >= 0) errors.add(prev + " !< " + id);
+                        all.add(id);
+                        prev = id;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            w.start();
+            workers.add(w);
+        }
+        start.countDown();
+        for (Thread w : workers) w.join();
+        assertTrue(errors.isEmpty(), errors::peek);
+        assertEquals(threads * perThread, all.stream().distinct().count());
+    }
+
+    @Test
+    void carriesVersionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.next();
+        long after = System.currentTimeMillis();
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long ts = UuidV7.timestamp(id);
+        // The counter may run a few milliseconds ahead of the clock after a burst in another test.
+        assertTrue(ts >= before && ts <= after + 1_000, ts + " outside [" + before + ", " + after + "]");
+    }
+
+    @Test
+    void timestampRejectsOtherVersions() {
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.timestamp(UUID.randomUUID()));
+    }
+
+    /**
+     * {@link UUID#compareTo} compares signed longs; Postgres and the index compare unsigned bytes.
+     */
+    private static int compareUnsigned(UUID a, UUID b) {
+        int c = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return c != 0 ? c : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
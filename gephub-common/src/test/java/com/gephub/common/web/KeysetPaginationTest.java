@@ -0,0 +1,165 @@
+package com.gephub.common.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pages must fetch one row beyond the page to tell whether another follows, hand back a cursor that resumes
+ * exactly after the last row shown, and exports must stream every row as its own JSON line. The database is a
+ * JDBC stub that returns fixed rows and records the SQL and bind parameters it was given.
+ */
+class KeysetPaginationTest {
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 50;
+    private static final int FETCH_SIZE = 500;
+    private static final String ORG = "org-1";
+
+    private record Item(String name) {}
+
+    private record Row(OffsetDateTime createdAt, UUID id, String name) {}
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+    private final AtomicInteger mapped = new AtomicInteger();
+    private final KeysetQuery<Item> query = KeysetQuery.newestFirst("SELECT name, created_at, id FROM things WHERE org = ?",
+        "created_at", "id", (rs, i) -> {
+            mapped.incrementAndGet();
+            return new Item(rs.getString("name"));
+        }, ORG);
+    private List<Row> rows = List.of();
+    private KeysetPagination pagination;
+
+    @BeforeEach
+    void database() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenAnswer(inv -> resultSet(rows));
+        pagination = new KeysetPagination(dataSource, mock(PlatformTransactionManager.class), new ObjectMapper(),
+            DEFAULT_LIMIT, MAX_LIMIT, FETCH_SIZE);
+    }
+
+    @Test
+    void fullPageWithSentinelRowHasNextCursor() throws Exception {
+        rows = rows(3);
+        KeysetPage<Item> page = pagination.page(query, null, 2);
+        assertEquals(List.of(new Item("r0"), new Item("r1")), page.items());
+        assertNotNull(page.nextCursor());
+        assertEquals(2, mapped.get(), "the sentinel row is only counted, not mapped");
+        verify(statement).setObject(2, 3);
+    }
+
+    @Test
+    void pageWithoutSentinelRowIsTheLast() {
+        rows = rows(2);
+        KeysetPage<Item> page = pagination.page(query, null, 2);
+        assertEquals(2, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void limitFallsBackToDefaultAndIsCappedAtMax() throws Exception {
+        pagination.page(query, null, null);
+        verify(statement).setObject(2, DEFAULT_LIMIT + 1);
+        pagination.page(query, null, 10_000);
+        verify(statement).setObject(2, MAX_LIMIT + 1);
+    }
+
+    @Test
+    void cursorResumesAfterTheLastRowShown() throws Exception {
+        rows = rows(3);
+        Row last = rows.get(1);
+        String cursor = pagination.page(query, null, 2).nextCursor();
+
+        rows = List.of();
+        pagination.page(query, cursor, 2);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection, times(2)).prepareStatement(sql.capture());
+        assertTrue(sql.getValue().contains("AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC LIMIT ?"), sql.getValue());
+        verify(statement, times(2)).setString(1, ORG);
+        verify(statement).setObject(2, last.createdAt());
+        verify(statement).setObject(3, last.id());
+        verify(statement).setObject(4, 3);
+    }
+
+    @Test
+    void cursorKeepsMicrosecondsLikePostgres() throws Exception {
+        OffsetDateTime nanos = OffsetDateTime.of(2024, 5, 1, 12, 0, 0, 123_456_789, ZoneOffset.ofHours(2));
+        rows = List.of(new Row(nanos, UUID.randomUUID(), "a"), new Row(nanos, UUID.randomUUID(), "b"));
+        String cursor = pagination.page(query, null, 1).nextCursor();
+
+        pagination.page(query, cursor, 1);
+        verify(statement).setObject(2, nanos.withNano(123_456_000).withOffsetSameInstant(ZoneOffset.UTC));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(KeysetPagination.InvalidCursorException.class, () -> pagination.page(query, "not-a-cursor", 2));
+        assertThrows(KeysetPagination.InvalidCursorException.class, () -> pagination.page(query, "%%%", 2));
+    }
+
+    @Test
+    void streamWritesEveryRowAsOneJsonLineWithoutLimit() throws Exception {
+        rows = rows(250);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        pagination.stream(query, null).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(250, lines.length);
+        ObjectMapper json = new ObjectMapper();
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode node = json.readTree(lines[i]);
+            assertEquals("r" + i, node.get("name").asText());
+        }
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection).prepareStatement(sql.capture());
+        assertFalse(sql.getValue().contains("LIMIT"), sql.getValue());
+        verify(statement).setFetchSize(FETCH_SIZE);
+    }
+
+    private static List<Row> rows(int n) {
+        OffsetDateTime start = OffsetDateTime.of(2024, 5, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        return IntStream.range(0, n)
+            .mapToObj(i -> new Row(start.minusSeconds(i), UUID.randomUUID(), "r" + i))
+            .toList();
+    }
+
+    private static ResultSet resultSet(List<Row> rows) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        int[] at = {-1};
+        when(rs.next()).thenAnswer(inv -> ++at[0] < rows.size());
+        when(rs.getString("name")).thenAnswer(inv -> rows.get(at[0]).name());
+        when(rs.getObject("created_at", OffsetDateTime.class)).thenAnswer(inv -> rows.get(at[0]).createdAt());
+        when(rs.getObject("id", UUID.class)).thenAnswer(inv -> rows.get(at[0]).id());
+        return rs;
+    }
+}
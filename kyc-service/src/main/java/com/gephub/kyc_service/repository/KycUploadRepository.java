@@ -0,0 +1,43 @@
+package com.gephub.kyc_service.repository;
+
+import com.gephub.kyc_service.domain.KycUpload;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface KycUploadRepository extends JpaRepository<KycUpload, UUID> {
+    List<KycUpload> findByMediaIdIsNullAndExpiresAtBefore(OffsetDateTime now);
+
+    /**
+     * The offset of an upload that is still open, read from the database rather than the persistence context.
+     */
+    @Query("select u.uploadOffset from KycUpload u where u.id = :id and u.mediaId is null")
+    Optional<Long> findOpenOffset(@Param("id") UUID id);
+
+    /**
+     * Moves the offset from {@code expected} to {@code next} and pushes out the expiry; 0 rows if another request got there first.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("""
+        update KycUpload u set u.uploadOffset = :next, u.updatedAt = :now, u.expiresAt = :expiresAt
+        where u.id = :id and u.uploadOffset = :expected and u.mediaId is null
+        """)
+    int advance(@Param("id") UUID id, @Param("expected") long expected, @Param("next") long next,
+                @Param("now") OffsetDateTime now, @Param("expiresAt") OffsetDateTime expiresAt);
+
+    /**
+     * Deletes the upload if it is still open and expired; 0 rows if it has made progress or finished meanwhile.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from KycUpload u where u.id = :id and u.mediaId is null and u.expiresAt < :now")
+    int deleteIfExpired(@Param("id") UUID id, @Param("now") OffsetDateTime now);
+}
@@ -0,0 +1,26 @@
+package com.gephub.kyc_service.service;
+
+import com.gephub.common.webhook.WebhookSigner;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+/**
+ * Hex HMAC-SHA256 of the body, as KYC webhook receivers verify it.
+ */
+@Component
+public class HmacWebhookSigner implements WebhookSigner {
+    @Override
+    public String sign(String secret, String body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
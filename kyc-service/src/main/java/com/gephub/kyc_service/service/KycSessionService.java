@@ -1,9 +1,12 @@
 package com.gephub.kyc_service.service;
 
+import com.gephub.common.id.UuidV7;
 import com.gephub.kyc_service.domain.KycMedia;
 import com.gephub.kyc_service.domain.KycSession;
 import com.gephub.kyc_service.repository.KycMediaRepository;
 import com.gephub.kyc_service.repository.KycSessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -24,22 +27,24 @@ public class KycSessionService {
     private final long defaultTtlSeconds;
     private final RabbitTemplate rabbitTemplate;
     private final Queue kycQueue;
+    private final MeterRegistry meterRegistry;
 
     public KycSessionService(KycSessionRepository sessionRepository, KycMediaRepository mediaRepository, StorageService storageService,
                              @Value("${gephub.kyc.sessionTtlSeconds:900}") long defaultTtlSeconds,
-                             RabbitTemplate rabbitTemplate, Queue kycQueue) {
+                             RabbitTemplate rabbitTemplate, Queue kycQueue, MeterRegistry meterRegistry) {
         this.sessionRepository = sessionRepository;
         this.mediaRepository = mediaRepository;
         this.storageService = storageService;
         this.defaultTtlSeconds = defaultTtlSeconds;
         this.rabbitTemplate = rabbitTemplate;
         this.kycQueue = kycQueue;
+        this.meterRegistry = meterRegistry;
     }
 
     @Transactional
     public KycSession createSession(UUID organizationId, String userRef, String createdBy, Map<String, Object> challengeScript) {
         KycSession s = new KycSession();
-        s.setId(UUID.randomUUID());
+        s.setId(UuidV7.next());
         s.setOrganizationId(organizationId);
         s.setUserRef(userRef);
         s.setStatus("PENDING");
@@ -51,6 +56,16 @@ public class KycSessionService {
 
     @Transactional
     public KycMedia saveMedia(UUID sessionId, String mediaType, MultipartFile file, String filename) throws IOException {
+        beginUpload(sessionId, mediaType, file.getContentType());
+        var saved = storageService.save(sessionId, mediaType, file, filename);
+        return recordMedia(sessionId, mediaType, saved);
+    }
+
+    /**
+     * Checks that the session still takes uploads and that {@code contentType} fits {@code mediaType}, and marks it UPLOADING.
+     */
+    @Transactional
+    public KycSession beginUpload(UUID sessionId, String mediaType, String contentType) {
         KycSession s = sessionRepository.findById(sessionId).orElseThrow();
         if (s.getExpiresAt().isBefore(OffsetDateTime.now())) throw new IllegalStateException("Session expired");
         // Validate mediaType
@@ -61,16 +76,22 @@ public class KycSessionService {
         sessionRepository.save(s);
 
         // Validate mime/size
-        String ct = file.getContentType() == null ? "application/octet-stream" : file.getContentType();
+        String ct = contentType == null ? "application/octet-stream" : contentType;
         if ((mediaType.startsWith("id_") && !(ct.equals("image/jpeg") || ct.equals("image/png"))) ||
             (mediaType.startsWith("selfie_") && !(ct.equals("video/mp4") || ct.equals("image/jpeg")))) {
             throw new IllegalArgumentException("Invalid content type for " + mediaType);
         }
+        return s;
+    }
 
-        var saved = storageService.save(sessionId, file, filename);
-
+    /**
+     * Records a stored file as session media and queues the session for processing once all required media is in.
+     */
+    @Transactional
+    public KycMedia recordMedia(UUID sessionId, String mediaType, StorageService.SavedFile saved) {
+        KycSession s = sessionRepository.findById(sessionId).orElseThrow();
         KycMedia m = new KycMedia();
-        m.setId(UUID.randomUUID());
+        m.setId(UuidV7.next());
         m.setSessionId(sessionId);
         m.setMediaType(mediaType);
         m.setFilePath(saved.filePath());
@@ -99,10 +120,17 @@ public class KycSessionService {
             } catch (Exception e) {
                 prompts = java.util.List.of("look_left","look_right","look_up","look_down");
             }
-            rabbitTemplate.convertAndSend(kycQueue.getName(), Map.of(
-                "sessionId", sessionId.toString(),
-                "prompts", prompts
-            ));
+            Timer.Sample started = Timer.start(meterRegistry);
+            String outcome = "error";
+            try {
+                rabbitTemplate.convertAndSend(kycQueue.getName(), Map.of(
+                    "sessionId", sessionId.toString(),
+                    "prompts", prompts
+                ));
+                outcome = "success";
+            } finally {
+                started.stop(meterRegistry.timer("gephub.kyc.enqueue", "outcome", outcome));
+            }
         }
         return m;
     }
@@ -0,0 +1,220 @@
+package com.gephub.kyc_service.service;
+
+import com.gephub.common.id.UuidV7;
+import com.gephub.kyc_service.domain.KycMedia;
+import com.gephub.kyc_service.domain.KycUpload;
+import com.gephub.kyc_service.repository.KycUploadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable (tus-style) uploads. Each PATCH appends its chunk to the upload's part file with positional writes and
+ * feeds a SHA-256 digest kept in memory between chunks, so finishing an upload never re-reads it; a node without the
+ * digest (after a restart) rebuilds it from the part file once. The offset only moves through a compare-and-set in
+ * the database and the part file is locked while a chunk is written and finalized, so concurrent PATCHes get 409
+ * instead of interleaving. Once the offset reaches the length the part file becomes {@link KycMedia}. Uploads that
+ * see no progress for {@code ttlSeconds} are removed with their part files.
+ */
+@Service
+public class KycUploadService {
+    private static final Logger log = LoggerFactory.getLogger(KycUploadService.class);
+
+    private final KycUploadRepository uploadRepository;
+    private final KycSessionService sessionService;
+    private final StorageService storageService;
+    private final TransactionTemplate tx;
+    private final long ttlSeconds;
+    private final Map<UUID, Resume> resumes = new ConcurrentHashMap<>();
+
+    private record Resume(long offset, MessageDigest digest) {}
+
+    public record Progress(long offset, KycMedia media) {}
+
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public static class OffsetConflictException extends IllegalStateException {
+        public OffsetConflictException(long offset) {
+            super("Upload is at offset " + offset);
+        }
+    }
+
+    @ResponseStatus(HttpStatus.GONE)
+    public static class UploadExpiredException extends IllegalStateException {
+        public UploadExpiredException() {
+            super("Upload expired");
+        }
+    }
+
+    public KycUploadService(KycUploadRepository uploadRepository, KycSessionService sessionService, StorageService storageService,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${gephub.kyc.uploads.ttlSeconds:3600}") long ttlSeconds) {
+        this.uploadRepository = uploadRepository;
+        this.sessionService = sessionService;
+        this.storageService = storageService;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public KycUpload create(UUID sessionId, String mediaType, String mimeType, String filename, long length) throws IOException {
+        if (length <= 0) throw new IllegalArgumentException("Upload-Length must be positive");
+        if (length > storageService.maxBytes(mediaType)) {
+            throw new StorageService.MediaTooLargeException(mediaType, storageService.maxBytes(mediaType));
+        }
+        sessionService.beginUpload(sessionId, mediaType, mimeType);
+        KycUpload u = new KycUpload();
+        u.setId(UuidV7.next());
+        u.setSessionId(sessionId);
+        u.setMediaType(mediaType);
+        u.setMimeType(mimeType);
+        u.setFilename(filename);
+        u.setUploadLength(length);
+        u.setExpiresAt(OffsetDateTime.now().plusSeconds(ttlSeconds));
+        Files.createFile(storageService.partFile(sessionId, u.getId()));
+        return uploadRepository.save(u);
+    }
+
+    public KycUpload get(UUID uploadId) {
+        return uploadRepository.findById(uploadId).orElseThrow();
+    }
+
+    /**
+     * Appends {@code in} at {@code offset}, which must be where the upload stands, and finalizes the upload when it is complete.
+     */
+    public Progress append(UUID uploadId, long offset, InputStream in) throws IOException {
+        KycUpload u = get(uploadId);
+        if (u.getMediaId() != null || offset != u.getUploadOffset()) throw new OffsetConflictException(u.getUploadOffset());
+        if (u.getExpiresAt().isBefore(OffsetDateTime.now())) throw new UploadExpiredException();
+        Path part = storageService.partFile(u.getSessionId(), uploadId);
+        try (FileChannel ch = openPart(uploadId, part)) {
+            lock(ch, offset);
+            // Re-check under the lock: a concurrent request may have advanced or finished the upload meanwhile.
+            long current = uploadRepository.findOpenOffset(uploadId).orElseThrow(() -> new OffsetConflictException(u.getUploadLength()));
+            if (current != offset) throw new OffsetConflictException(current);
+            Resume cached = resumes.remove(uploadId);
+            MessageDigest digest = cached != null && cached.offset() == offset ? cached.digest() : storageService.resumeDigest(part, offset);
+            long written = storageService.append(ch, offset, in, u.getUploadLength() - offset, u.getMediaType(), digest);
+            long next = offset + written;
+            OffsetDateTime now = OffsetDateTime.now();
+            if (written > 0 && uploadRepository.advance(uploadId, offset, next, now, now.plusSeconds(ttlSeconds)) == 0) {
+                throw new OffsetConflictException(get(uploadId).getUploadOffset());
+            }
+            if (next < u.getUploadLength()) {
+                resumes.put(uploadId, new Resume(next, digest));
+                return new Progress(next, null);
+            }
+            return new Progress(next, finish(u, part, digest));
+        }
+    }
+
+    /**
+     * Opens the part file, telling a finished upload (whose part file has become media) from an expired one.
+     */
+    private FileChannel openPart(UUID uploadId, Path part) throws IOException {
+        try {
+            return FileChannel.open(part, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            KycUpload u = get(uploadId);
+            if (uploadRepository.findOpenOffset(uploadId).isEmpty()) throw new OffsetConflictException(u.getUploadLength());
+            throw new UploadExpiredException();
+        }
+    }
+
+    /**
+     * Moves the part file into place and records it as media, with the caller still holding the part file's lock.
+     * If recording fails the file goes back to being the part file, so a retried empty PATCH at the final offset can
+     * finish the upload.
+     */
+    private KycMedia finish(KycUpload u, Path part, MessageDigest digest) throws IOException {
+        var saved = storageService.commit(part, u.getSessionId(), u.getFilename(), u.getMimeType(), u.getUploadLength(), digest);
+        try {
+            return tx.execute(status -> {
+                KycMedia m = sessionService.recordMedia(u.getSessionId(), u.getMediaType(), saved);
+                KycUpload done = get(u.getId());
+                done.setUploadOffset(u.getUploadLength());
+                done.setMediaId(m.getId());
+                done.setUpdatedAt(OffsetDateTime.now());
+                uploadRepository.save(done);
+                return m;
+            });
+        } catch (RuntimeException e) {
+            Files.move(Path.of(saved.filePath()), part, StandardCopyOption.ATOMIC_MOVE);
+            throw e;
+        }
+    }
+
+    public void delete(UUID uploadId) throws IOException {
+        KycUpload u = get(uploadId);
+        resumes.remove(uploadId);
+        if (u.getMediaId() == null) Files.deleteIfExists(storageService.partFile(u.getSessionId(), uploadId));
+        uploadRepository.delete(u);
+    }
+
+    @Scheduled(fixedDelayString = "${gephub.kyc.uploads.cleanupIntervalMs:600000}")
+    public void purgeExpired() {
+        OffsetDateTime now = OffsetDateTime.now();
+        for (KycUpload u : uploadRepository.findByMediaIdIsNullAndExpiresAtBefore(now)) {
+            try {
+                purge(u, now);
+            } catch (Exception e) {
+                log.warn("Failed to purge expired upload {}: {}", u.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Removes an expired upload under its part file's lock, skipping it while an in-flight PATCH holds the lock. The
+     * expiry is re-checked under the lock, since that PATCH may have pushed it out.
+     */
+    private void purge(KycUpload u, OffsetDateTime now) throws IOException {
+        Path part = storageService.partFile(u.getSessionId(), u.getId());
+        FileChannel ch;
+        try {
+            ch = FileChannel.open(part, StandardOpenOption.WRITE);
+        } catch (NoSuchFileException e) {
+            if (uploadRepository.deleteIfExpired(u.getId(), now) > 0) resumes.remove(u.getId());
+            return;
+        }
+        try (ch) {
+            try {
+                if (ch.tryLock() == null) return;
+            } catch (OverlappingFileLockException e) {
+                return;
+            }
+            if (uploadRepository.deleteIfExpired(u.getId(), now) == 0) return;
+            resumes.remove(u.getId());
+            Files.deleteIfExists(part);
+        }
+    }
+
+    /**
+     * Locks the whole part file until {@code ch} is closed, or fails with 409 if another request holds it.
+     */
+    private static void lock(FileChannel ch, long offset) throws IOException {
+        try {
+            if (ch.tryLock() == null) throw new OffsetConflictException(offset);
+        } catch (OverlappingFileLockException e) {
+            throw new OffsetConflictException(offset);
+        }
+    }
+}
@@ -1,22 +1,59 @@
 package com.gephub.kyc_service.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.*;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.HexFormat;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * KYC media on local disk. Uploads are streamed once through a SHA-256 digest into a temp file next to the target
+ * and atomically moved into place, so memory per upload stays at one transfer buffer whatever the file size, and
+ * a half-written file is never visible under its final name. Resumable uploads collect in a part file through
+ * {@link #append} and are moved into place by {@link #commit} once complete.
+ */
 @Service
 public class StorageService {
+    private static final long TRANSFER_CHUNK = 1 << 20;
+    private static final int APPEND_BUFFER = 64 * 1024;
+
     private final Path root;
+    private final long maxImageBytes;
+    private final long maxVideoBytes;
+    private final MeterRegistry meterRegistry;
+
+    @ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+    public static class MediaTooLargeException extends IllegalArgumentException {
+        public MediaTooLargeException(String mediaType, long maxBytes) {
+            super(mediaType + " exceeds " + maxBytes + " bytes");
+        }
+    }
 
-    public StorageService(@Value("${gephub.storage.root}") String rootPath) {
+    public StorageService(@Value("${gephub.storage.root}") String rootPath,
+                          @Value("${gephub.storage.maxImageBytes:10485760}") long maxImageBytes,
+                          @Value("${gephub.storage.maxVideoBytes:52428800}") long maxVideoBytes,
+                          MeterRegistry meterRegistry) {
         this.root = Paths.get(rootPath);
+        this.maxImageBytes = maxImageBytes;
+        this.maxVideoBytes = maxVideoBytes;
+        this.meterRegistry = meterRegistry;
     }
 
     public Path ensureSessionDir(UUID sessionId) throws IOException {
@@ -25,21 +62,139 @@ public class StorageService {
         return dir;
     }
 
-    public SavedFile save(UUID sessionId, MultipartFile file, String filename) throws IOException {
+    public SavedFile save(UUID sessionId, String mediaType, MultipartFile file, String filename) throws IOException {
+        String mime = file.getContentType() == null ? "application/octet-stream" : file.getContentType();
+        if (file.getSize() > maxBytes(mediaType)) throw new MediaTooLargeException(mediaType, maxBytes(mediaType));
+        try (InputStream in = file.getInputStream()) {
+            return store(sessionId, mediaType, in, mime, filename);
+        }
+    }
+
+    /**
+     * Streams {@code in} to the session's {@code filename}, failing with {@link MediaTooLargeException} as soon as it
+     * passes the limit for {@code mediaType}.
+     */
+    public SavedFile store(UUID sessionId, String mediaType, InputStream in, String mime, String filename) throws IOException {
         Path dir = ensureSessionDir(sessionId);
         Path target = dir.resolve(filename);
-        Files.copy(file.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
-        String checksum = sha256(target);
-        long size = Files.size(target);
-        String mime = file.getContentType() == null ? "application/octet-stream" : file.getContentType();
-        return new SavedFile(target.toString(), mime, checksum, size);
+        String format = format(mime);
+        long limit = maxBytes(mediaType);
+        MessageDigest digest = sha256();
+        Path tmp = Files.createTempFile(dir, ".upload-", ".part");
+        try {
+            long started = System.nanoTime();
+            long size = 0;
+            try (ReadableByteChannel src = Channels.newChannel(new DigestInputStream(in, digest));
+                 FileChannel dst = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                long n;
+                while ((n = dst.transferFrom(src, size, Math.min(TRANSFER_CHUNK, limit + 1 - size))) > 0) {
+                    size += n;
+                    if (size > limit) throw new MediaTooLargeException(mediaType, limit);
+                }
+                long streamed = System.nanoTime();
+                stepTimer("stream", format).record(streamed - started, TimeUnit.NANOSECONDS);
+                dst.force(false);
+            }
+            long committing = System.nanoTime();
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            stepTimer("commit", format).record(System.nanoTime() - committing, TimeUnit.NANOSECONDS);
+            DistributionSummary.builder("gephub.kyc.media.size").baseUnit("bytes").tag("format", format).register(meterRegistry).record(size);
+            return new SavedFile(target.toString(), mime, HexFormat.of().formatHex(digest.digest()), size);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Where a resumable upload's bytes collect until it completes; hidden next to the files it will become.
+     */
+    public Path partFile(UUID sessionId, UUID uploadId) throws IOException {
+        return ensureSessionDir(sessionId).resolve(".upload-" + uploadId + ".part");
+    }
+
+    /**
+     * Writes {@code in} into {@code part} at {@code offset} with positional writes, feeding {@code digest} with exactly
+     * the bytes written, and returns how many that was. A client that drops mid-chunk keeps what arrived; more than
+     * {@code remaining} bytes fails with {@link MediaTooLargeException} without writing the excess.
+     */
+    public long append(FileChannel part, long offset, InputStream in, long remaining, String mediaType, MessageDigest digest) throws IOException {
+        byte[] buf = new byte[APPEND_BUFFER];
+        ByteBuffer bb = ByteBuffer.wrap(buf);
+        long written = 0;
+        while (true) {
+            int n;
+            try {
+                n = in.read(buf, 0, (int) Math.min(buf.length, remaining - written + 1));
+            } catch (IOException e) {
+                break;
+            }
+            if (n < 0) break;
+            if (written + n > remaining) throw new MediaTooLargeException(mediaType, maxBytes(mediaType));
+            bb.clear().limit(n);
+            long pos = offset + written;
+            while (bb.hasRemaining()) pos += part.write(bb, pos);
+            digest.update(buf, 0, n);
+            written += n;
+        }
+        part.force(false);
+        return written;
+    }
+
+    /**
+     * SHA-256 state after the first {@code offset} bytes of {@code part}, for resuming an upload whose digest this node doesn't hold.
+     */
+    public MessageDigest resumeDigest(Path part, long offset) throws IOException {
+        MessageDigest digest = sha256();
+        try (FileChannel ch = FileChannel.open(part, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(APPEND_BUFFER);
+            long pos = 0;
+            while (pos < offset) {
+                buf.clear().limit((int) Math.min(buf.capacity(), offset - pos));
+                int n = ch.read(buf, pos);
+                if (n < 0) throw new IOException("Upload part shorter than its offset");
+                digest.update(buf.flip());
+                pos += n;
+            }
+        }
+        return digest;
+    }
+
+    /**
+     * Moves a finished upload's {@code part} into place as the session's {@code filename}.
+     */
+    public SavedFile commit(Path part, UUID sessionId, String filename, String mime, long size, MessageDigest digest) throws IOException {
+        Path target = ensureSessionDir(sessionId).resolve(filename);
+        String format = format(mime);
+        long committing = System.nanoTime();
+        Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        stepTimer("commit", format).record(System.nanoTime() - committing, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("gephub.kyc.media.size").baseUnit("bytes").tag("format", format).register(meterRegistry).record(size);
+        return new SavedFile(target.toString(), mime, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    public long maxBytes(String mediaType) {
+        return "selfie_video".equals(mediaType) ? maxVideoBytes : maxImageBytes;
+    }
+
+    /**
+     * Bounded metric tag for an upload's content type.
+     */
+    public static String format(String mimeType) {
+        return switch (mimeType == null ? "" : mimeType) {
+            case "image/jpeg" -> "jpeg";
+            case "image/png" -> "png";
+            case "video/mp4" -> "mp4";
+            default -> "other";
+        };
+    }
+
+    private Timer stepTimer(String step, String format) {
+        return Timer.builder("gephub.kyc.storage").tags("step", step, "format", format).register(meterRegistry);
     }
 
-    private String sha256(Path path) throws IOException {
+    private static MessageDigest sha256() {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] bytes = Files.readAllBytes(path);
-            return HexFormat.of().formatHex(digest.digest(bytes));
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
             throw new IllegalStateException(e);
         }
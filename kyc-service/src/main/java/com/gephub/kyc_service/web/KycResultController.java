@@ -1,20 +1,20 @@
 package com.gephub.kyc_service.web;
 
+import com.gephub.common.id.UuidV7;
+import com.gephub.common.security.GephubPrincipal;
 import com.gephub.kyc_service.domain.KycResult;
 import com.gephub.kyc_service.domain.KycSession;
 import com.gephub.kyc_service.repository.KycResultRepository;
 import com.gephub.kyc_service.repository.KycSessionRepository;
 import com.gephub.kyc_service.service.WebhookService;
+import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.http.ResponseEntity;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpHeaders;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
-import static com.gephub.kyc_service.security.AuthzUtil.*;
 
 import java.time.OffsetDateTime;
 import java.util.Map;
@@ -38,11 +38,11 @@ public class KycResultController {
     }
 
     @GetMapping("/sessions/{id}/result")
-    public ResponseEntity<?> getResult(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
+    public ResponseEntity<?> getResult(GephubPrincipal principal, @PathVariable UUID id) {
         var s = sessionRepository.findById(id).orElseThrow();
-        var tokenOrg = orgId(jwt);
+        var tokenOrg = principal.organizationId();
         if (tokenOrg != null && !tokenOrg.equals(s.getOrganizationId())) return ResponseEntity.status(403).build();
-        if (!hasScope(jwt, "kyc.result:read") && !hasScope(jwt, "kyc.*")) return ResponseEntity.status(403).build();
+        if (!principal.hasScope("kyc.result:read")) return ResponseEntity.status(403).build();
         return resultRepository.findBySessionId(id)
                 .<ResponseEntity<?>>map(r -> ResponseEntity.ok(Map.of(
                         "sessionId", r.getSessionId().toString(),
@@ -58,6 +58,7 @@ public class KycResultController {
     public record CompleteRequest(@NotNull UUID sessionId, Double livenessScore, String[] reasonCodes, Boolean manualReview, Double faceMatchScore) {}
 
     @PostMapping("/internal/complete")
+    @Transactional
     public ResponseEntity<?> complete(@RequestHeader HttpHeaders headers, @Valid @RequestBody CompleteRequest req) {
         if (workerToken != null && !workerToken.isBlank()) {
             String auth = headers.getFirst("X-Gephub-Worker-Token");
@@ -72,7 +73,7 @@ public class KycResultController {
 
         KycResult r = resultRepository.findBySessionId(req.sessionId()).orElseGet(() -> {
             KycResult x = new KycResult();
-            x.setId(UUID.randomUUID());
+            x.setId(UuidV7.next());
             x.setSessionId(req.sessionId());
             return x;
         });
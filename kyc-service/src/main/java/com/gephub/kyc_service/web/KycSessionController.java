@@ -1,5 +1,9 @@
 package com.gephub.kyc_service.web;
 
+import com.gephub.common.security.GephubPrincipal;
+import com.gephub.common.security.Role;
+import com.gephub.common.web.KeysetPagination;
+import com.gephub.common.web.KeysetQuery;
 import com.gephub.kyc_service.domain.KycMedia;
 import com.gephub.kyc_service.domain.KycSession;
 import com.gephub.kyc_service.repository.KycMediaRepository;
@@ -8,15 +12,14 @@ import com.gephub.kyc_service.service.KycSessionService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import static com.gephub.kyc_service.security.AuthzUtil.*;
 
 import java.io.IOException;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -27,25 +30,27 @@ public class KycSessionController {
     private final KycSessionService service;
     private final KycSessionRepository sessionRepository;
     private final KycMediaRepository mediaRepository;
+    private final KeysetPagination pagination;
 
-    public KycSessionController(KycSessionService service, KycSessionRepository sessionRepository, KycMediaRepository mediaRepository) {
+    public KycSessionController(KycSessionService service, KycSessionRepository sessionRepository, KycMediaRepository mediaRepository,
+                                KeysetPagination pagination) {
         this.service = service;
         this.sessionRepository = sessionRepository;
         this.mediaRepository = mediaRepository;
+        this.pagination = pagination;
     }
 
     public record CreateSessionRequest(@NotNull UUID organizationId, String userRef, Map<String, Object> challengeScript) {}
 
     @PostMapping("/sessions")
-    public ResponseEntity<?> createSession(@AuthenticationPrincipal Jwt jwt, @Valid @RequestBody CreateSessionRequest req) {
+    public ResponseEntity<?> createSession(GephubPrincipal principal, @Valid @RequestBody CreateSessionRequest req) {
         // RBAC + scope checks
-        if (!hasScope(jwt, "kyc.session:create") && !hasScope(jwt, "kyc.*")) return ResponseEntity.status(403).build();
-        String r = role(jwt);
-        if (!roleAtLeast(r, "DEV")) return ResponseEntity.status(403).build();
+        if (!principal.hasScope("kyc.session:create")) return ResponseEntity.status(403).build();
+        if (!principal.roleAtLeast(Role.DEV)) return ResponseEntity.status(403).build();
         // Org isolation: if token has org_id, it must match requested org
-        var tokenOrg = orgId(jwt);
+        var tokenOrg = principal.organizationId();
         if (tokenOrg != null && !tokenOrg.equals(req.organizationId())) return ResponseEntity.status(403).build();
-        String createdBy = jwt.getSubject();
+        String createdBy = principal.subject();
         Map<String, Object> script = req.challengeScript() == null ? Map.of("prompts", List.of("look_left","look_right","look_up","look_down"), "segmentSeconds", 2) : req.challengeScript();
         KycSession s = service.createSession(req.organizationId(), req.userRef(), createdBy, script);
         return ResponseEntity.ok(Map.of(
@@ -56,10 +61,28 @@ public class KycSessionController {
         ));
     }
 
+    public record SessionSummary(String sessionId, String userRef, String status, String expiresAt, String createdAt) {}
+
+    @GetMapping("/sessions")
+    public ResponseEntity<?> listSessions(GephubPrincipal principal, @RequestParam(required = false) UUID organizationId,
+                                          @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        var tokenOrg = principal.organizationId();
+        UUID orgId = organizationId != null ? organizationId : tokenOrg;
+        if (orgId == null) return ResponseEntity.badRequest().body(Map.of("message", "organizationId required"));
+        if (tokenOrg != null && !tokenOrg.equals(orgId)) return ResponseEntity.status(403).build();
+        return pagination.respond(KeysetQuery.newestFirst(
+            "SELECT id, user_ref, status, expires_at, created_at FROM kyc_sessions WHERE organization_id = ?",
+            "created_at", "id",
+            (rs, i) -> new SessionSummary(rs.getString("id"), rs.getString("user_ref"), rs.getString("status"),
+                rs.getObject("expires_at", OffsetDateTime.class).toString(), rs.getObject("created_at", OffsetDateTime.class).toString()),
+            orgId), accept, cursor, limit);
+    }
+
     @GetMapping("/sessions/{id}")
-    public ResponseEntity<?> getSession(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
+    public ResponseEntity<?> getSession(GephubPrincipal principal, @PathVariable UUID id) {
         KycSession s = sessionRepository.findById(id).orElseThrow();
-        var tokenOrg = orgId(jwt);
+        var tokenOrg = principal.organizationId();
         if (tokenOrg != null && !tokenOrg.equals(s.getOrganizationId())) return ResponseEntity.status(403).build();
         return ResponseEntity.ok(Map.of(
             "sessionId", s.getId().toString(),
@@ -69,14 +92,13 @@ public class KycSessionController {
     }
 
     @PostMapping(value = "/sessions/{id}/media", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<?> uploadMedia(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id,
+    public ResponseEntity<?> uploadMedia(GephubPrincipal principal, @PathVariable UUID id,
                                          @RequestParam("mediaType") @NotBlank String mediaType,
                                          @RequestPart("file") MultipartFile file) throws IOException {
-        if (!hasScope(jwt, "kyc.media:upload") && !hasScope(jwt, "kyc.*")) return ResponseEntity.status(403).build();
-        String r = role(jwt);
-        if (!roleAtLeast(r, "DEV")) return ResponseEntity.status(403).build();
+        if (!principal.hasScope("kyc.media:upload")) return ResponseEntity.status(403).build();
+        if (!principal.roleAtLeast(Role.DEV)) return ResponseEntity.status(403).build();
         KycSession s0 = sessionRepository.findById(id).orElseThrow();
-        var tokenOrg = orgId(jwt);
+        var tokenOrg = principal.organizationId();
         if (tokenOrg != null && !tokenOrg.equals(s0.getOrganizationId())) return ResponseEntity.status(403).build();
         String filename = file.getOriginalFilename() == null ? "upload.bin" : file.getOriginalFilename();
         KycMedia m = service.saveMedia(id, mediaType, file, filename);
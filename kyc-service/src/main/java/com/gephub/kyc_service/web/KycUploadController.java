@@ -0,0 +1,156 @@
+package com.gephub.kyc_service.web;
+
+import com.gephub.common.security.GephubPrincipal;
+import com.gephub.common.security.Role;
+import com.gephub.kyc_service.domain.KycSession;
+import com.gephub.kyc_service.domain.KycUpload;
+import com.gephub.kyc_service.repository.KycSessionRepository;
+import com.gephub.kyc_service.service.KycUploadService;
+import com.gephub.kyc_service.service.StorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resumable uploads following the tus 1.0 core protocol (plus creation and termination), for selfie videos and
+ * other media on connections that drop: create with {@code POST}, send chunks with {@code PATCH} at the current
+ * {@code Upload-Offset}, and ask for that offset with {@code HEAD} after reconnecting.
+ */
+@RestController
+@RequestMapping("/api/v1/kyc")
+public class KycUploadController {
+    private static final String TUS_RESUMABLE = "Tus-Resumable";
+    private static final String TUS_VERSION = "1.0.0";
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+    private static final String UPLOAD_LENGTH = "Upload-Length";
+    private static final String OFFSET_OCTET_STREAM = "application/offset+octet-stream";
+
+    private final KycUploadService uploadService;
+    private final KycSessionRepository sessionRepository;
+    private final StorageService storageService;
+
+    public KycUploadController(KycUploadService uploadService, KycSessionRepository sessionRepository, StorageService storageService) {
+        this.uploadService = uploadService;
+        this.sessionRepository = sessionRepository;
+        this.storageService = storageService;
+    }
+
+    @RequestMapping(value = "/uploads", method = RequestMethod.OPTIONS)
+    public ResponseEntity<Void> options() {
+        return ResponseEntity.noContent()
+            .header(TUS_RESUMABLE, TUS_VERSION)
+            .header("Tus-Version", TUS_VERSION)
+            .header("Tus-Extension", "creation,termination,expiration")
+            .header("Tus-Max-Size", Long.toString(storageService.maxBytes("selfie_video")))
+            .build();
+    }
+
+    /**
+     * {@code Upload-Metadata} carries {@code mediaType}, {@code filetype} and optionally {@code filename}, base64 encoded as tus specifies.
+     */
+    @PostMapping("/sessions/{id}/uploads")
+    public ResponseEntity<?> create(GephubPrincipal principal, @PathVariable UUID id,
+                                    @RequestHeader(UPLOAD_LENGTH) long length,
+                                    @RequestHeader(value = "Upload-Metadata", required = false) String metadata) throws IOException {
+        if (!principal.hasScope("kyc.media:upload")) return ResponseEntity.status(403).build();
+        if (!principal.roleAtLeast(Role.DEV)) return ResponseEntity.status(403).build();
+        KycSession s = sessionRepository.findById(id).orElseThrow();
+        var tokenOrg = principal.organizationId();
+        if (tokenOrg != null && !tokenOrg.equals(s.getOrganizationId())) return ResponseEntity.status(403).build();
+        Map<String, String> meta = parseMetadata(metadata);
+        String mediaType = meta.get("mediaType");
+        if (mediaType == null || mediaType.isBlank()) return ResponseEntity.badRequest().body(Map.of("message", "mediaType metadata required"));
+        String mime = meta.getOrDefault("filetype", "application/octet-stream");
+        Path name = Path.of(meta.getOrDefault("filename", "upload.bin")).getFileName();
+        String filename = name == null ? "upload.bin" : name.toString();
+        KycUpload u = uploadService.create(id, mediaType, mime, filename, length);
+        return ResponseEntity.created(URI.create("/api/v1/kyc/uploads/" + u.getId()))
+            .header(TUS_RESUMABLE, TUS_VERSION)
+            .header(UPLOAD_OFFSET, "0")
+            .header("Upload-Expires", u.getExpiresAt().toString())
+            .build();
+    }
+
+    @RequestMapping(value = "/uploads/{uploadId}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> status(GephubPrincipal principal, @PathVariable UUID uploadId) {
+        KycUpload u = uploadService.get(uploadId);
+        if (!allowed(principal, u)) return ResponseEntity.status(403).build();
+        return ResponseEntity.ok()
+            .header(TUS_RESUMABLE, TUS_VERSION)
+            .header(UPLOAD_OFFSET, Long.toString(u.getUploadOffset()))
+            .header(UPLOAD_LENGTH, Long.toString(u.getUploadLength()))
+            .header("Upload-Expires", u.getExpiresAt().toString())
+            .header(HttpHeaders.CACHE_CONTROL, "no-store")
+            .build();
+    }
+
+    /**
+     * Appends the request body at {@code Upload-Offset}. Answers 204 with the new offset, or 200 with the media once the upload is complete.
+     */
+    @PatchMapping(value = "/uploads/{uploadId}", consumes = OFFSET_OCTET_STREAM)
+    public ResponseEntity<?> append(GephubPrincipal principal, @PathVariable UUID uploadId,
+                                    @RequestHeader(UPLOAD_OFFSET) long offset, HttpServletRequest request) throws IOException {
+        KycUpload u = uploadService.get(uploadId);
+        if (!allowed(principal, u)) return ResponseEntity.status(403).build();
+        KycUploadService.Progress p;
+        try (InputStream in = request.getInputStream()) {
+            p = uploadService.append(uploadId, offset, in);
+        }
+        if (p.media() == null) {
+            return ResponseEntity.noContent()
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header(UPLOAD_OFFSET, Long.toString(p.offset()))
+                .build();
+        }
+        return ResponseEntity.ok()
+            .header(TUS_RESUMABLE, TUS_VERSION)
+            .header(UPLOAD_OFFSET, Long.toString(p.offset()))
+            .body(Map.of(
+                "mediaId", p.media().getId().toString(),
+                "checksum", p.media().getChecksum(),
+                "sizeBytes", p.media().getSizeBytes()
+            ));
+    }
+
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<Void> delete(GephubPrincipal principal, @PathVariable UUID uploadId) throws IOException {
+        KycUpload u = uploadService.get(uploadId);
+        if (!allowed(principal, u)) return ResponseEntity.status(403).build();
+        uploadService.delete(uploadId);
+        return ResponseEntity.noContent().header(TUS_RESUMABLE, TUS_VERSION).build();
+    }
+
+    private boolean allowed(GephubPrincipal principal, KycUpload u) {
+        if (!principal.hasScope("kyc.media:upload") || !principal.roleAtLeast(Role.DEV)) return false;
+        var tokenOrg = principal.organizationId();
+        if (tokenOrg == null) return true;
+        KycSession s = sessionRepository.findById(u.getSessionId()).orElseThrow();
+        return tokenOrg.equals(s.getOrganizationId());
+    }
+
+    private static Map<String, String> parseMetadata(String header) {
+        Map<String, String> meta = new HashMap<>();
+        if (header == null || header.isBlank()) return meta;
+        for (String pair : header.split(",")) {
+            String[] kv = pair.trim().split(" ", 2);
+            if (kv[0].isEmpty()) continue;
+            try {
+                meta.put(kv[0], kv.length == 2 ? new String(Base64.getDecoder().decode(kv[1].trim()), StandardCharsets.UTF_8) : "");
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid Upload-Metadata");
+            }
+        }
+        return meta;
+    }
+}
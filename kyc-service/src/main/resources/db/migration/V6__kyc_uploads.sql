@@ -0,0 +1,17 @@
+-- Resumable (tus-style) media uploads. The bytes live in a .part file under the session directory until
+-- upload_offset reaches upload_length and the upload is finalized into kyc_media.
+CREATE TABLE kyc_uploads (
+    id UUID PRIMARY KEY,
+    session_id UUID NOT NULL REFERENCES kyc_sessions(id) ON DELETE CASCADE,
+    media_type VARCHAR(16) NOT NULL,
+    mime_type VARCHAR(64) NOT NULL,
+    filename TEXT NOT NULL,
+    upload_length BIGINT NOT NULL,
+    upload_offset BIGINT NOT NULL DEFAULT 0,
+    media_id UUID NULL REFERENCES kyc_media(id) ON DELETE SET NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    expires_at TIMESTAMPTZ NOT NULL
+);
+CREATE INDEX idx_kyc_uploads_session ON kyc_uploads(session_id);
+CREATE INDEX idx_kyc_uploads_expires ON kyc_uploads(expires_at) WHERE media_id IS NULL;
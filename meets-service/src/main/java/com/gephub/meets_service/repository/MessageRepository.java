@@ -3,10 +3,8 @@ package com.gephub.meets_service.repository;
 import com.gephub.meets_service.domain.Message;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.util.List;
 import java.util.UUID;
 
 public interface MessageRepository extends JpaRepository<Message, UUID> {
-    List<Message> findByRoomIdOrderByCreatedAtAsc(UUID roomId);
 }
 
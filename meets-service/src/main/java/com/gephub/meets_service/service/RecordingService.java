@@ -1,20 +1,24 @@
 package com.gephub.meets_service.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gephub.common.http.OutboundHttpClient;
 import io.livekit.server.LiveKitServer;
 import io.livekit.server.RoomService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
@@ -22,20 +26,25 @@ import java.util.UUID;
 
 @Service
 public class RecordingService {
+    private static final Logger log = LoggerFactory.getLogger(RecordingService.class);
+
     private final LiveKitServer liveKit;
     private final RoomService roomService;
     private final String recordingsRoot;
     private final String apiKey;
     private final String apiSecret;
     private final String host;
-    private final RestTemplate http = new RestTemplate();
+    private final OutboundHttpClient.Destination http;
     private final ObjectMapper json = new ObjectMapper();
 
     public RecordingService(@Value("${gephub.meets.livekit.apiKey}") String apiKey,
                            @Value("${gephub.meets.livekit.apiSecret}") String apiSecret,
                            @Value("${gephub.meets.livekit.host}") String host,
-                           @Value("${gephub.meets.recordingsRoot}") String recordingsRoot) throws IOException {
+                           @Value("${gephub.meets.recordingsRoot}") String recordingsRoot,
+                           @Value("${gephub.meets.livekit.timeoutMs:10000}") long timeoutMs,
+                           OutboundHttpClient outbound) throws IOException {
         this.apiKey = apiKey;
+        this.http = outbound.destination("livekit", Duration.ofMillis(timeoutMs));
         this.apiSecret = apiSecret;
         this.host = host;
         this.recordingsRoot = recordingsRoot;
@@ -69,19 +78,16 @@ public class RecordingService {
                 request.put("output", "mp4");
                 request.put("filepath", recordingPath);
                 
-                HttpHeaders headers = createAuthHeaders();
-                HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-                
-                ResponseEntity<Map> response = http.postForEntity(recordingUrl, entity, Map.class);
-                if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                    Map<String, Object> body = response.getBody();
+                HttpResponse<String> response = http.send(authorizedPost(recordingUrl, request), HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() / 100 == 2 && response.body() != null && !response.body().isBlank()) {
+                    Map<String, Object> body = json.readValue(response.body(), Map.class);
                     if (body.containsKey("recording_id")) {
                         return body.get("recording_id").toString();
                     }
                 }
             } catch (Exception e) {
                 // Fallback to local tracking if API call fails
-                System.err.println("LiveKit recording API call failed: " + e.getMessage());
+                log.warn("LiveKit recording API call failed: {}", e.getMessage());
             }
         }
         
@@ -98,31 +104,30 @@ public class RecordingService {
                 Map<String, Object> request = new HashMap<>();
                 request.put("recording_id", recordingId);
                 
-                HttpHeaders headers = createAuthHeaders();
-                HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-                
-                http.postForEntity(recordingUrl, entity, Map.class);
+                HttpResponse<Void> response = http.send(authorizedPost(recordingUrl, request), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 != 2) {
+                    log.warn("LiveKit stop recording API call failed: HTTP {}", response.statusCode());
+                }
             } catch (Exception e) {
-                System.err.println("LiveKit stop recording API call failed: " + e.getMessage());
+                log.warn("LiveKit stop recording API call failed: {}", e.getMessage());
             }
         }
     }
 
-    private HttpHeaders createAuthHeaders() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        
+    private HttpRequest authorizedPost(String url, Map<String, Object> body) throws IOException {
         // LiveKit HTTP API uses API Key and Secret in Authorization header
         // Format: Authorization: Bearer <base64(apiKey:apiSecret)>
         String credentials = apiKey + ":" + apiSecret;
         String encoded = Base64.getEncoder().encodeToString(credentials.getBytes());
-        headers.setBearerAuth(encoded);
-        
-        // Alternative: Use X-API-Key header
-        headers.set("X-API-Key", apiKey);
-        headers.set("X-API-Secret", apiSecret);
         
-        return headers;
+        return HttpRequest.newBuilder(URI.create(url))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + encoded)
+                // Alternative: Use X-API-Key header
+                .header("X-API-Key", apiKey)
+                .header("X-API-Secret", apiSecret)
+                .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body)))
+                .build();
     }
 
     public String getRecordingPath(UUID roomId, String recordingId) {
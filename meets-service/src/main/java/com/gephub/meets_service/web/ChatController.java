@@ -1,8 +1,11 @@
 package com.gephub.meets_service.web;
 
+import com.gephub.common.id.UuidV7;
 import com.gephub.meets_service.domain.Message;
 import com.gephub.meets_service.repository.MessageRepository;
 import com.gephub.meets_service.repository.RoomRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.messaging.handler.annotation.MessageMapping;
@@ -22,11 +25,13 @@ public class ChatController {
     private final MessageRepository messages;
     private final RoomRepository rooms;
     private final RedisTemplate<String, Object> redis;
+    private final MeterRegistry meterRegistry;
 
-    public ChatController(MessageRepository messages, RoomRepository rooms, RedisTemplate<String, Object> redis) {
+    public ChatController(MessageRepository messages, RoomRepository rooms, RedisTemplate<String, Object> redis, MeterRegistry meterRegistry) {
         this.messages = messages;
         this.rooms = rooms;
         this.redis = redis;
+        this.meterRegistry = meterRegistry;
     }
 
     @MessageMapping("/rooms/{roomId}/chat")
@@ -40,14 +45,27 @@ public class ChatController {
         var room = rooms.findById(roomId).orElse(null);
         if (room == null || room.getEndedAt() != null) return null;
         Message m = new Message();
-        m.setId(UUID.randomUUID());
+        m.setId(UuidV7.next());
         m.setRoomId(roomId);
         m.setUserId(jwt.getSubject());
         m.setDisplayName(msg.displayName());
         m.setContent(msg.content());
         m.setMessageType(msg.type() == null ? "text" : msg.type());
+        String type = "text".equals(m.getMessageType()) ? "text" : "other";
+        Timer.Sample persisting = Timer.start(meterRegistry);
         messages.save(m);
-        redis.convertAndSend("room:" + roomId + ":chat", Map.of("id", m.getId().toString(), "userId", m.getUserId(), "displayName", m.getDisplayName(), "content", m.getContent(), "type", m.getMessageType(), "createdAt", m.getCreatedAt().toString()));
+        persisting.stop(meterRegistry.timer("gephub.meets.chat.persist", "type", type));
+        Timer.Sample fanningOut = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            redis.convertAndSend("room:" + roomId + ":chat", Map.of("id", m.getId().toString(), "userId", m.getUserId(), "displayName", m.getDisplayName(), "content", m.getContent(), "type", m.getMessageType(), "createdAt", m.getCreatedAt().toString()));
+            outcome = "success";
+        } finally {
+            fanningOut.stop(meterRegistry.timer("gephub.meets.chat.fanout", "type", type, "outcome", outcome));
+        }
+        if (msg.content() != null) {
+            meterRegistry.summary("gephub.meets.chat.content.length", "type", type).record(msg.content().length());
+        }
         return new ChatMessage(msg.id(), msg.displayName(), msg.content(), msg.type(), m.getCreatedAt().toString());
     }
 
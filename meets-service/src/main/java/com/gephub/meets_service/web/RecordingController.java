@@ -1,5 +1,9 @@
 package com.gephub.meets_service.web;
 
+import com.gephub.common.id.UuidV7;
+import com.gephub.common.security.GephubPrincipal;
+import com.gephub.common.web.KeysetPagination;
+import com.gephub.common.web.KeysetQuery;
 import com.gephub.meets_service.domain.Recording;
 import com.gephub.meets_service.domain.Room;
 import com.gephub.meets_service.repository.RecordingRepository;
@@ -11,37 +15,34 @@ import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.io.File;
 import java.time.OffsetDateTime;
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
-import static com.gephub.meets_service.security.AuthzUtil.*;
-
 @RestController
 @RequestMapping("/api/v1/meets")
 public class RecordingController {
     private final RecordingService recordingService;
     private final RecordingRepository recordings;
     private final RoomRepository rooms;
+    private final KeysetPagination pagination;
 
-    public RecordingController(RecordingService recordingService, RecordingRepository recordings, RoomRepository rooms) {
+    public RecordingController(RecordingService recordingService, RecordingRepository recordings, RoomRepository rooms, KeysetPagination pagination) {
         this.recordingService = recordingService;
         this.recordings = recordings;
         this.rooms = rooms;
+        this.pagination = pagination;
     }
 
     @PostMapping("/rooms/{id}/recordings/start")
     @Transactional
-    public ResponseEntity<?> startRecording(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
-        if (!hasScope(jwt, "meets.recording:create")) return ResponseEntity.status(403).build();
+    public ResponseEntity<?> startRecording(GephubPrincipal principal, @PathVariable UUID id) {
+        if (!principal.hasScope("meets.recording:create")) return ResponseEntity.status(403).build();
         var room = rooms.findById(id).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(room.getOrganizationId())) return ResponseEntity.status(403).build();
         if (room.getEndedAt() != null) return ResponseEntity.badRequest().body(Map.of("message", "Room ended"));
         
@@ -54,7 +55,7 @@ public class RecordingController {
         try {
             String recordingId = recordingService.startRecording(id);
             Recording rec = new Recording();
-            rec.setId(UUID.randomUUID());
+            rec.setId(UuidV7.next());
             rec.setRoomId(id);
             rec.setPath(recordingService.getRecordingPath(id, recordingId));
             rec.setStatus("recording");
@@ -67,10 +68,10 @@ public class RecordingController {
 
     @PostMapping("/rooms/{id}/recordings/stop")
     @Transactional
-    public ResponseEntity<?> stopRecording(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
-        if (!hasScope(jwt, "meets.recording:moderate")) return ResponseEntity.status(403).build();
+    public ResponseEntity<?> stopRecording(GephubPrincipal principal, @PathVariable UUID id) {
+        if (!principal.hasScope("meets.recording:moderate")) return ResponseEntity.status(403).build();
         var room = rooms.findById(id).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(room.getOrganizationId())) return ResponseEntity.status(403).build();
         
         var recording = recordings.findByRoomIdAndStatus(id, "recording").orElse(null);
@@ -88,29 +89,32 @@ public class RecordingController {
         }
     }
 
+    public record RecordingSummary(String id, String status, String path, long bytes, int durationSeconds, String createdAt, String completedAt) {}
+
     @GetMapping("/rooms/{id}/recordings")
-    public ResponseEntity<?> listRecordings(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
+    public ResponseEntity<?> listRecordings(GephubPrincipal principal, @PathVariable UUID id,
+                                            @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         var room = rooms.findById(id).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(room.getOrganizationId())) return ResponseEntity.status(403).build();
-        
-        List<Recording> list = recordings.findByRoomId(id);
-        return ResponseEntity.ok(list.stream().map(r -> Map.of(
-                "id", r.getId().toString(),
-                "status", r.getStatus(),
-                "path", r.getPath(),
-                "bytes", r.getBytes(),
-                "durationSeconds", r.getDurationSeconds() == null ? 0 : r.getDurationSeconds(),
-                "createdAt", r.getCreatedAt().toString(),
-                "completedAt", r.getCompletedAt() == null ? null : r.getCompletedAt().toString()
-        )).toList());
+        return pagination.respond(KeysetQuery.newestFirst(
+            "SELECT id, status, path, bytes, duration_seconds, created_at, completed_at FROM recordings WHERE room_id = ?",
+            "created_at", "id",
+            (rs, i) -> {
+                OffsetDateTime completedAt = rs.getObject("completed_at", OffsetDateTime.class);
+                return new RecordingSummary(rs.getString("id"), rs.getString("status"), rs.getString("path"), rs.getLong("bytes"),
+                    rs.getInt("duration_seconds"), rs.getObject("created_at", OffsetDateTime.class).toString(),
+                    completedAt == null ? null : completedAt.toString());
+            },
+            id), accept, cursor, limit);
     }
 
     @GetMapping("/recordings/{recordingId}/download")
-    public ResponseEntity<Resource> downloadRecording(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID recordingId) {
+    public ResponseEntity<Resource> downloadRecording(GephubPrincipal principal, @PathVariable UUID recordingId) {
         var recording = recordings.findById(recordingId).orElseThrow();
         var room = rooms.findById(recording.getRoomId()).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(room.getOrganizationId())) return ResponseEntity.status(403).build();
         
         if (!"completed".equals(recording.getStatus())) {
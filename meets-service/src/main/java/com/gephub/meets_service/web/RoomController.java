@@ -1,5 +1,9 @@
 package com.gephub.meets_service.web;
 
+import com.gephub.common.id.UuidV7;
+import com.gephub.common.security.GephubPrincipal;
+import com.gephub.common.web.KeysetPagination;
+import com.gephub.common.web.KeysetQuery;
 import com.gephub.meets_service.domain.Participant;
 import com.gephub.meets_service.domain.Room;
 import com.gephub.meets_service.repository.ParticipantRepository;
@@ -9,54 +13,53 @@ import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.OffsetDateTime;
 import java.util.Map;
 import java.util.UUID;
 
-import static com.gephub.meets_service.security.AuthzUtil.*;
-
 @RestController
 @RequestMapping("/api/v1/meets")
 public class RoomController {
     private final RoomRepository rooms;
     private final ParticipantRepository participants;
     private final LiveKitTokenService tokenService;
+    private final KeysetPagination pagination;
 
-    public RoomController(RoomRepository rooms, ParticipantRepository participants, LiveKitTokenService tokenService) {
+    public RoomController(RoomRepository rooms, ParticipantRepository participants, LiveKitTokenService tokenService, KeysetPagination pagination) {
         this.rooms = rooms;
         this.participants = participants;
         this.tokenService = tokenService;
+        this.pagination = pagination;
     }
 
     public record CreateRoomRequest(@NotBlank String name, @Size(min=4,max=16) String code, Integer maxParticipants, UUID organizationId) {}
 
     @PostMapping("/rooms")
-    public ResponseEntity<?> create(@AuthenticationPrincipal Jwt jwt, @Valid @RequestBody CreateRoomRequest req) {
-        if (!hasScope(jwt, "meets.room:create")) return ResponseEntity.status(403).build();
-        UUID org = orgId(jwt);
+    public ResponseEntity<?> create(GephubPrincipal principal, @Valid @RequestBody CreateRoomRequest req) {
+        if (!principal.hasScope("meets.room:create")) return ResponseEntity.status(403).build();
+        UUID org = principal.organizationId();
         if (req.organizationId() != null && org != null && !org.equals(req.organizationId())) return ResponseEntity.status(403).build();
         UUID orgId = req.organizationId() != null ? req.organizationId() : org;
         if (orgId == null) return ResponseEntity.badRequest().body(Map.of("message","org_id required"));
         Room r = new Room();
-        r.setId(UUID.randomUUID());
+        r.setId(UuidV7.next());
         r.setOrganizationId(orgId);
         r.setName(req.name());
         r.setCode(req.code());
         r.setMaxParticipants(req.maxParticipants() == null ? 50 : req.maxParticipants());
-        r.setCreatedBy(jwt.getSubject());
+        r.setCreatedBy(principal.subject());
         rooms.save(r);
         return ResponseEntity.ok(Map.of("id", r.getId().toString(), "code", r.getCode()));
     }
 
     @GetMapping("/rooms/{id}")
-    public ResponseEntity<?> get(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
+    public ResponseEntity<?> get(GephubPrincipal principal, @PathVariable UUID id) {
         var r = rooms.findById(id).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(r.getOrganizationId())) return ResponseEntity.status(403).build();
         return ResponseEntity.ok(Map.of(
             "id", r.getId().toString(),
@@ -68,22 +71,42 @@ public class RoomController {
         ));
     }
 
+    public record MessageView(String id, String userId, String displayName, String content, String type, String createdAt) {}
+
+    /**
+     * Chat history in the order it was sent.
+     */
+    @GetMapping("/rooms/{id}/messages")
+    public ResponseEntity<?> messages(GephubPrincipal principal, @PathVariable UUID id,
+                                      @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer limit,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        var r = rooms.findById(id).orElseThrow();
+        UUID org = principal.organizationId();
+        if (org != null && !org.equals(r.getOrganizationId())) return ResponseEntity.status(403).build();
+        return pagination.respond(KeysetQuery.oldestFirst(
+            "SELECT id, user_id, display_name, content, message_type, created_at FROM messages WHERE room_id = ?",
+            "created_at", "id",
+            (rs, i) -> new MessageView(rs.getString("id"), rs.getString("user_id"), rs.getString("display_name"), rs.getString("content"),
+                rs.getString("message_type"), rs.getObject("created_at", OffsetDateTime.class).toString()),
+            id), accept, cursor, limit);
+    }
+
     public record JoinTokenRequest(@NotBlank String displayName, @NotBlank String role) {}
 
     @PostMapping("/rooms/{id}/participants/token")
     @Transactional
-    public ResponseEntity<?> joinToken(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id, @Valid @RequestBody JoinTokenRequest req) {
-        if (!hasScope(jwt, "meets.room:join")) return ResponseEntity.status(403).build();
+    public ResponseEntity<?> joinToken(GephubPrincipal principal, @PathVariable UUID id, @Valid @RequestBody JoinTokenRequest req) {
+        if (!principal.hasScope("meets.room:join")) return ResponseEntity.status(403).build();
         var r = rooms.findById(id).orElseThrow(() -> new IllegalArgumentException("Room not found"));
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(r.getOrganizationId())) return ResponseEntity.status(403).build();
         if (r.getEndedAt() != null) return ResponseEntity.badRequest().body(Map.of("message", "Room ended"));
         long current = participants.countByRoomIdAndLeftAtIsNull(id);
         if (current >= r.getMaxParticipants()) return ResponseEntity.badRequest().body(Map.of("message", "Room full"));
-        String userId = jwt.getSubject();
+        String userId = principal.subject();
         String token = tokenService.createAccessToken(id, userId, req.displayName(), req.role());
         Participant p = new Participant();
-        p.setId(UUID.randomUUID());
+        p.setId(UuidV7.next());
         p.setRoomId(id);
         p.setUserId(userId);
         p.setDisplayName(req.displayName());
@@ -94,10 +117,10 @@ public class RoomController {
 
     @PostMapping("/rooms/{id}/end")
     @Transactional
-    public ResponseEntity<?> endRoom(@AuthenticationPrincipal Jwt jwt, @PathVariable UUID id) {
-        if (!hasScope(jwt, "meets.room:moderate")) return ResponseEntity.status(403).build();
+    public ResponseEntity<?> endRoom(GephubPrincipal principal, @PathVariable UUID id) {
+        if (!principal.hasScope("meets.room:moderate")) return ResponseEntity.status(403).build();
         var r = rooms.findById(id).orElseThrow();
-        UUID org = orgId(jwt);
+        UUID org = principal.organizationId();
         if (org != null && !org.equals(r.getOrganizationId())) return ResponseEntity.status(403).build();
         r.setEndedAt(OffsetDateTime.now());
         rooms.save(r);
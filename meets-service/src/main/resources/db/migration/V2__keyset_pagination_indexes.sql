@@ -0,0 +1,7 @@
+-- Keyset pagination on (created_at, id) within each parent. Built CONCURRENTLY so large tables stay
+-- writable; every statement here must therefore be non-transactional.
+-- Drop INVALID indexes left by a failed run before retrying it; see "Database Migrations" in README.md.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_messages_room_created ON messages (room_id, created_at, id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_messages_room;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_recordings_room_created ON recordings (room_id, created_at, id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_recordings_room;